@@ -54,7 +54,8 @@ public class ConstructorWriterImpl extends AbstractExecutableMemberWriter
     public ConstructorWriterImpl(SubWriterHolderWriter writer,
             ClassDoc classDoc) {
         super(writer, classDoc);
-        VisibleMemberMap visibleMemberMap = new VisibleMemberMap(classDoc,
+        VisibleMemberMap visibleMemberMap =
+            configuration().inheritanceCache.getVisibleMemberMap(classDoc,
             VisibleMemberMap.CONSTRUCTORS, configuration().nodeprecated);
         List constructors = new ArrayList(visibleMemberMap.getMembersFor(classDoc));
         for (int i = 0; i < constructors.size(); i++) {
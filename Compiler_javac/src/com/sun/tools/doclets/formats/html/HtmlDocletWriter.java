@@ -427,7 +427,7 @@ public class HtmlDocletWriter extends HtmlDocWriter {
                 head, body);
         Content htmlDocument = new HtmlDocument(htmlDocType,
                 htmlComment, htmlTree);
-        print(htmlDocument.toString());
+        printContent(htmlDocument);
     }
 
     /**
@@ -1765,29 +1765,26 @@ public class HtmlDocletWriter extends HtmlDocWriter {
     public String getCrossClassLink(String qualifiedClassName, String refMemName,
                                     String label, boolean strong, String style,
                                     boolean code) {
-        String className = "",
-            packageName = qualifiedClassName == null ? "" : qualifiedClassName;
-        int periodIndex;
-        while((periodIndex = packageName.lastIndexOf('.')) != -1) {
-            className = packageName.substring(periodIndex + 1, packageName.length()) +
-                (className.length() > 0 ? "." + className : "");
+        if (qualifiedClassName == null) {
+            return null;
+        }
+        String packageName = configuration.extern.findExternalPackage(qualifiedClassName);
+        if (packageName != null) {
+            //The package exists in external documentation, so link to the external
+            //class (assuming that it exists).  This is definitely a limitation of
+            //the -link option.  There are ways to determine if an external package
+            //exists, but no way to determine if the external class exists.  We just
+            //have to assume that it does.
+            String className = qualifiedClassName.substring(packageName.length() + 1);
             String defaultLabel = code ? getCode() + className + getCodeEnd() : className;
-            packageName = packageName.substring(0, periodIndex);
-            if (getCrossPackageLink(packageName) != null) {
-                //The package exists in external documentation, so link to the external
-                //class (assuming that it exists).  This is definitely a limitation of
-                //the -link option.  There are ways to determine if an external package
-                //exists, but no way to determine if the external class exists.  We just
-                //have to assume that it does.
-                return getHyperLinkString(
-                    configuration.extern.getExternalLink(packageName, relativePath,
-                                className + ".html?is-external=true"),
-                    refMemName == null ? "" : refMemName,
-                    label == null || label.length() == 0 ? defaultLabel : label,
-                    strong, style,
-                    configuration.getText("doclet.Href_Class_Or_Interface_Title", packageName),
-                    "");
-            }
+            return getHyperLinkString(
+                configuration.extern.getExternalLink(packageName, relativePath,
+                            className + ".html?is-external=true"),
+                refMemName == null ? "" : refMemName,
+                label == null || label.length() == 0 ? defaultLabel : label,
+                strong, style,
+                configuration.getText("doclet.Href_Class_Or_Interface_Title", packageName),
+                "");
         }
         return null;
     }
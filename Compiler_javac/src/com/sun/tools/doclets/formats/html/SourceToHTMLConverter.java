@@ -26,6 +26,7 @@
 package com.sun.tools.doclets.formats.html;
 
 import java.io.*;
+import java.util.concurrent.*;
 import javax.tools.FileObject;
 import com.sun.javadoc.*;
 import com.sun.tools.doclets.internal.toolkit.*;
@@ -58,10 +59,10 @@ public class SourceToHTMLConverter {
     private static final Content NEW_LINE = new RawHtml(DocletConstants.NL);
 
     /**
-     * Relative path from the documentation root to the file that is being
-     * generated.
+     * The maximum number of source files which may be waiting for a worker
+     * thread, and so holding an open reader, at any time.
      */
-    private static String relativePath = "";
+    private static final int MAX_QUEUED_FILES = 64;
 
     /**
      * Source is converted to HTML using static methods below.
@@ -80,14 +81,66 @@ public class SourceToHTMLConverter {
         if (rd == null || outputdir == null) {
             return;
         }
-        PackageDoc[] pds = rd.specifiedPackages();
-        for (int i = 0; i < pds.length; i++) {
-            convertPackage(configuration, pds[i], outputdir);
+        ExecutorService executor = newExecutor();
+        try {
+            PackageDoc[] pds = rd.specifiedPackages();
+            for (int i = 0; i < pds.length; i++) {
+                convertPackage(configuration, pds[i], outputdir, executor);
+            }
+            ClassDoc[] cds = rd.specifiedClasses();
+            for (int i = 0; i < cds.length; i++) {
+                convertClass(configuration, cds[i],
+                        getPackageOutputDir(outputdir, cds[i].containingPackage()),
+                        executor);
+            }
+        } finally {
+            if (executor != null) {
+                awaitTermination(executor);
+            }
         }
-        ClassDoc[] cds = rd.specifiedClasses();
-        for (int i = 0; i < cds.length; i++) {
-            convertClass(configuration, cds[i],
-                    getPackageOutputDir(outputdir, cds[i].containingPackage()));
+    }
+
+    /**
+     * Create the pool of worker threads which convert the source files,
+     * or return null if the files should be converted as they are found.
+     * Files are read and written by the workers, but are opened, and
+     * reported, in order by the calling thread; if too many files are
+     * waiting, the calling thread converts the next file itself.
+     */
+    private static ExecutorService newExecutor() {
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        if (nThreads <= 1) {
+            return null;
+        }
+        ThreadFactory threadFactory = new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "javadoc source converter");
+                t.setDaemon(true);
+                return t;
+            }
+        };
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(MAX_QUEUED_FILES),
+                threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Wait for the workers to finish converting the files given to them.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        executor.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -100,13 +153,18 @@ public class SourceToHTMLConverter {
      */
     public static void convertPackage(ConfigurationImpl configuration, PackageDoc pd,
             String outputdir) {
+        convertPackage(configuration, pd, outputdir, null);
+    }
+
+    private static void convertPackage(ConfigurationImpl configuration, PackageDoc pd,
+            String outputdir, Executor executor) {
         if (pd == null || outputdir == null) {
             return;
         }
         String classOutputdir = getPackageOutputDir(outputdir, pd);
         ClassDoc[] cds = pd.allClasses();
         for (int i = 0; i < cds.length; i++) {
-            convertClass(configuration, cds[i], classOutputdir);
+            convertClass(configuration, cds[i], classOutputdir, executor);
         }
     }
 
@@ -131,6 +189,15 @@ public class SourceToHTMLConverter {
      */
     public static void convertClass(ConfigurationImpl configuration, ClassDoc cd,
             String outputdir) {
+        convertClass(configuration, cd, outputdir, null);
+    }
+
+    /**
+     * Convert the given Class to an HTML, using the given executor, if any,
+     * to read the source and write the HTML.
+     */
+    private static void convertClass(final ConfigurationImpl configuration,
+            ClassDoc cd, String outputdir, Executor executor) {
         if (cd == null || outputdir == null) {
             return;
         }
@@ -151,26 +218,39 @@ public class SourceToHTMLConverter {
                     return;
                 r = new FileReader(file);
             }
-            LineNumberReader reader = new LineNumberReader(r);
-            int lineno = 1;
-            String line;
-            relativePath = DirectoryManager.getRelativePath(DocletConstants.SOURCE_OUTPUT_DIR_NAME) +
+            final Reader reader = r;
+            final String relativePath =
+                    DirectoryManager.getRelativePath(DocletConstants.SOURCE_OUTPUT_DIR_NAME) +
                     DirectoryManager.getRelativePath(cd.containingPackage());
-            Content body = getHeader();
-            Content pre = new HtmlTree(HtmlTag.PRE);
-            try {
-                while ((line = reader.readLine()) != null) {
-                    addLineNo(pre, lineno);
-                    addLine(pre, line, configuration.sourcetab, lineno);
-                    lineno++;
+            final String title = configuration.getText("doclet.Window_Source_title");
+            File dir = new File(outputdir);
+            dir.mkdirs();
+            final File newFile = new File(dir, cd.name() + ".html");
+            configuration.message.notice("doclet.Generating_0", newFile.getPath());
+            Runnable task = new Runnable() {
+                public void run() {
+                    try {
+                        Content body = getHeader();
+                        Content pre = new HtmlTree(HtmlTag.PRE);
+                        pre.addContent(new SourceLines(reader, configuration.sourcetab));
+                        Content div = HtmlTree.DIV(HtmlStyle.sourceContainer, pre);
+                        body.addContent(div);
+                        writeToFile(body, newFile, title, relativePath, configuration);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    } finally {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                        }
+                    }
                 }
-            } finally {
-                reader.close();
+            };
+            if (executor == null) {
+                task.run();
+            } else {
+                executor.execute(task);
             }
-            addBlankLines(pre);
-            Content div = HtmlTree.DIV(HtmlStyle.sourceContainer, pre);
-            body.addContent(div);
-            writeToFile(body, outputdir, cd.name(), configuration);
         } catch (Exception e){
             e.printStackTrace();
         }
@@ -180,38 +260,41 @@ public class SourceToHTMLConverter {
      * Write the output to the file.
      *
      * @param body the documentation content to be written to the file.
-     * @param outputDir the directory to output to.
-     * @param className the name of the class that I am converting to HTML.
-     * @param configuration the Doclet configuration to pass notices to.
+     * @param newFile the file to write.
+     * @param title the window title of the file.
+     * @param relativePath relative path from the documentation root to the
+     *                     file that is being generated.
+     * @param configuration the Doclet configuration.
      */
-    private static void writeToFile(Content body, String outputDir,
-            String className, ConfigurationImpl configuration) throws IOException {
+    private static void writeToFile(Content body, File newFile, String title,
+            String relativePath, ConfigurationImpl configuration) throws IOException {
         Content htmlDocType = DocType.Transitional();
         Content head = new HtmlTree(HtmlTag.HEAD);
-        head.addContent(HtmlTree.TITLE(new StringContent(
-                configuration.getText("doclet.Window_Source_title"))));
-        head.addContent(getStyleSheetProperties(configuration));
+        head.addContent(HtmlTree.TITLE(new StringContent(title)));
+        head.addContent(getStyleSheetProperties(configuration, relativePath));
         Content htmlTree = HtmlTree.HTML(configuration.getLocale().getLanguage(),
                 head, body);
         Content htmlDocument = new HtmlDocument(htmlDocType, htmlTree);
-        File dir = new File(outputDir);
-        dir.mkdirs();
-        File newFile = new File(dir, className + ".html");
-        configuration.message.notice("doclet.Generating_0", newFile.getPath());
         FileOutputStream fout = new FileOutputStream(newFile);
         BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fout));
-        bw.write(htmlDocument.toString());
-        bw.close();
-        fout.close();
+        try {
+            htmlDocument.write(bw, true);
+        } finally {
+            bw.close();
+            fout.close();
+        }
     }
 
     /**
      * Returns a link to the stylesheet file.
      *
      * @param configuration the doclet configuration for the current run of javadoc
+     * @param relativePath relative path from the documentation root to the
+     *                     file that is being generated
      * @return an HtmlTree for the lINK tag which provides the stylesheet location
      */
-    public static HtmlTree getStyleSheetProperties(ConfigurationImpl configuration) {
+    public static HtmlTree getStyleSheetProperties(ConfigurationImpl configuration,
+            String relativePath) {
         String filename = configuration.stylesheetfile;
         if (filename.length() > 0) {
             File stylefile = new File(filename);
@@ -237,12 +320,12 @@ public class SourceToHTMLConverter {
     }
 
     /**
-     * Add the line numbers for the source code.
+     * Get the line number for the source code.
      *
-     * @param pre the content tree to which the line number will be added
      * @param lineno The line number
+     * @return the content tree for the line number
      */
-    private static void addLineNo(Content pre, int lineno) {
+    private static Content getLineNo(int lineno) {
         HtmlTree span = new HtmlTree(HtmlTag.SPAN);
         span.addStyle(HtmlStyle.sourceLineNo);
         if (lineno < 10) {
@@ -252,37 +335,70 @@ public class SourceToHTMLConverter {
         } else {
             span.addContent(Integer.toString(lineno));
         }
-        pre.addContent(span);
+        return span;
     }
 
     /**
-     * Add a line from source to the HTML file that is generated.
+     * Get a line from source, formatted for the HTML file that is generated.
      *
-     * @param pre the content tree to which the line will be added.
      * @param line the string to format.
      * @param tabLength the number of spaces for each tab.
-     * @param currentLineNo the current number.
+     * @return the content tree for the line.
      */
-    private static void addLine(Content pre, String line, int tabLength,
-            int currentLineNo) {
-        if (line != null) {
-            StringBuffer lineBuffer = new StringBuffer(Util.escapeHtmlChars(line));
-            Util.replaceTabs(tabLength, lineBuffer);
-            pre.addContent(new RawHtml(lineBuffer.toString()));
-            Content anchor = HtmlTree.A_NAME("line." + Integer.toString(currentLineNo));
-            pre.addContent(anchor);
-            pre.addContent(NEW_LINE);
-        }
+    private static Content getLine(String line, int tabLength) {
+        StringBuffer lineBuffer = new StringBuffer(Util.escapeHtmlChars(line));
+        Util.replaceTabs(tabLength, lineBuffer);
+        return new RawHtml(lineBuffer.toString());
     }
 
     /**
-     * Add trailing blank lines at the end of the page.
-     *
-     * @param pre the content tree to which the blank lines will be added.
+     * The numbered and anchored lines of a source file, followed by
+     * trailing blank lines so that anchors at the bottom of small pages
+     * can be reached.  The lines are read from the source as they are
+     * written, so the whole file is never held in memory; as a result,
+     * the content can only be written once.
      */
-    private static void addBlankLines(Content pre) {
-        for (int i = 0; i < NUM_BLANK_LINES; i++) {
-            pre.addContent(NEW_LINE);
+    private static class SourceLines extends Content {
+        private final Reader reader;
+        private final int tabLength;
+
+        SourceLines(Reader reader, int tabLength) {
+            this.reader = reader;
+            this.tabLength = tabLength;
+        }
+
+        public void addContent(Content content) {
+            throw new DocletAbortException();
+        }
+
+        public void addContent(String stringContent) {
+            throw new DocletAbortException();
+        }
+
+        public boolean isEmpty() {
+            return false;
+        }
+
+        public boolean write(Writer out, boolean atNewline) throws IOException {
+            LineNumberReader in = new LineNumberReader(reader);
+            int lineno = 1;
+            String line;
+            try {
+                while ((line = in.readLine()) != null) {
+                    atNewline = getLineNo(lineno).write(out, atNewline);
+                    atNewline = getLine(line, tabLength).write(out, atNewline);
+                    Content anchor = HtmlTree.A_NAME("line." + Integer.toString(lineno));
+                    atNewline = anchor.write(out, atNewline);
+                    atNewline = NEW_LINE.write(out, atNewline);
+                    lineno++;
+                }
+            } finally {
+                in.close();
+            }
+            for (int i = 0; i < NUM_BLANK_LINES; i++) {
+                atNewline = NEW_LINE.write(out, atNewline);
+            }
+            return atNewline;
         }
     }
 
@@ -164,7 +164,8 @@ public class HtmlWriter extends PrintWriter {
     public HtmlWriter(Configuration configuration,
                       String path, String filename, String docencoding)
                       throws IOException, UnsupportedEncodingException {
-        super(Util.genWriter(configuration, path, filename, docencoding));
+        super(new BufferedWriter(
+                Util.genWriter(configuration, path, filename, docencoding)));
         this.configuration = configuration;
         htmlFilename = filename;
         this.memberDetailsListPrinted = false;
@@ -246,6 +247,20 @@ public class HtmlWriter extends PrintWriter {
         return new RawHtml(configuration.getText(key, a1, a2));
     }
 
+    /**
+     * Print the content to the output, writing it directly rather than
+     * first rendering it to a string.
+     *
+     * @param content the content to be printed
+     */
+    public void printContent(Content content) {
+        try {
+            content.write(this, true);
+        } catch (IOException e) {
+            setError();
+        }
+    }
+
     /**
      * Print &lt;HTML&gt; tag. Add a newline character at the end.
      */
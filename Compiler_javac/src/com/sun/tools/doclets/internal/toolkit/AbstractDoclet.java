@@ -142,6 +142,9 @@ public abstract class AbstractDoclet {
 
         generateOtherFiles(root, classtree);
         configuration.tagletManager.printReport();
+        if (configuration.cachestats) {
+            configuration.inheritanceCache.printReport(configuration.message);
+        }
     }
 
     /**
@@ -190,6 +190,18 @@ public abstract class Configuration {
      */
     public boolean nodeprecated = false;
 
+    /**
+     * The cache of visible members and inherited documentation shared by
+     * the writers and builders in this run.
+     */
+    public final InheritanceCache inheritanceCache = new InheritanceCache();
+
+    /**
+     * Print the hit rates of the inheritance cache at the end of the run,
+     * if -xcachestats option is used.
+     */
+    public boolean cachestats = false;
+
     /**
      * The catalog of classes specified on the command-line
      */
@@ -295,6 +307,7 @@ public abstract class Configuration {
             option.equals("-nosince") ||
             option.equals("-notimestamp") ||
             option.equals("-quiet") ||
+            option.equals("-xcachestats") ||
             option.equals("-xnodate") ||
             option.equals("-version")) {
             return 1;
@@ -309,7 +322,8 @@ public abstract class Configuration {
                    option.equals("-sourcepath") ||
                    option.equals("-tag") ||
                    option.equals("-taglet") ||
-                   option.equals("-tagletpath")) {
+                   option.equals("-tagletpath") ||
+                   option.equals("-xlinkcache")) {
             return 2;
         } else if (option.equals("-group") ||
                    option.equals("-linkoffline")) {
@@ -346,6 +360,13 @@ public abstract class Configuration {
      */
     public void setOptions(String[][] options) {
         LinkedHashSet customTagStrs = new LinkedHashSet();
+        // The package-list cache must be set before any -link option is seen.
+        for (int oi = 0; oi < options.length; ++oi) {
+            if (options[oi][0].toLowerCase().equals("-xlinkcache")) {
+                extern.setPackageListCache(
+                    new PackageListCache(new File(options[oi][1])));
+            }
+        }
         for (int oi = 0; oi < options.length; ++oi) {
             String[] os = options[oi];
             String opt = os[0].toLowerCase();
@@ -400,6 +421,8 @@ public abstract class Configuration {
                 keywords = true;
             } else  if (opt.equals("-serialwarn")) {
                 serialwarn = true;
+            } else  if (opt.equals("-xcachestats")) {
+                cachestats = true;
             } else if (opt.equals("-group")) {
                 group.checkPackageGroups(os[1], os[2]);
             } else if (opt.equals("-link")) {
@@ -411,6 +434,7 @@ public abstract class Configuration {
                 extern.url(url, pkglisturl, root, true);
             }
         }
+        extern.savePackageListCache();
         if (sourcepath.length() == 0) {
             sourcepath = System.getProperty("env.class.path") == null ? "" :
                 System.getProperty("env.class.path");
@@ -25,6 +25,10 @@
 
 package com.sun.tools.doclets.internal.toolkit;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
 import com.sun.tools.doclets.internal.toolkit.util.*;
 
 /**
@@ -40,9 +44,14 @@ public abstract class Content {
      * @return string representation of the content
      */
     public String toString() {
-        StringBuilder contentBuilder = new StringBuilder();
-        write(contentBuilder);
-        return contentBuilder.toString();
+        StringWriter out = new StringWriter();
+        try {
+            write(out, true);
+        } catch (IOException e) {
+            // cannot happen from a StringWriter
+            throw new DocletAbortException();
+        }
+        return out.toString();
     }
 
     /**
@@ -60,10 +69,15 @@ public abstract class Content {
     public abstract void addContent(String stringContent);
 
     /**
-     * Writes content to a StringBuilder.
+     * Writes content to a writer.
      *
+     * @param writer the writer to which the content is written
+     * @param atNewline true if the output written so far is empty or
+     *                  ends with a newline
+     * @return true if the output written so far, including this content,
+     *         is empty or ends with a newline
      */
-    public abstract void write(StringBuilder contentBuilder);
+    public abstract boolean write(Writer writer, boolean atNewline) throws IOException;
 
     /**
      * Returns true if the content is empty.
@@ -93,14 +107,27 @@ public abstract class Content {
     }
 
     /**
-     * Returns true if the content ends with a newline character. Empty content
-     * is considered as ending with new line.
+     * Returns true if the output ends with a newline character after the
+     * given text has been written to it. Empty output is considered as
+     * ending with new line.
      *
-     * @param contentBuilder content to test for newline character at the end
-     * @return true if the content ends with newline.
+     * @param text the text most recently written to the output
+     * @param atNewline true if the output ended with a newline before the
+     *                  text was written
+     * @return true if the output ends with newline.
      */
-    public boolean endsWithNewLine(StringBuilder contentBuilder) {
-        return ((contentBuilder.length() == 0) ||
-                (contentBuilder.toString().endsWith(DocletConstants.NL)));
+    protected static boolean endsWithNewLine(CharSequence text, boolean atNewline) {
+        int length = text.length();
+        if (length == 0)
+            return atNewline;
+        String nl = DocletConstants.NL;
+        int offset = length - nl.length();
+        if (offset < 0)
+            return false;
+        for (int i = 0; i < nl.length(); i++) {
+            if (text.charAt(offset + i) != nl.charAt(i))
+                return false;
+        }
+        return true;
     }
 }
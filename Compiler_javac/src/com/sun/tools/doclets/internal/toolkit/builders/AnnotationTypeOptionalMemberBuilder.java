@@ -70,7 +70,8 @@ public class AnnotationTypeOptionalMemberBuilder extends
             new AnnotationTypeOptionalMemberBuilder(configuration);
         builder.classDoc = classDoc;
         builder.writer = writer;
-        builder.visibleMemberMap = new VisibleMemberMap(classDoc,
+        builder.visibleMemberMap =
+            configuration.inheritanceCache.getVisibleMemberMap(classDoc,
             VisibleMemberMap.ANNOTATION_TYPE_MEMBER_OPTIONAL, configuration.nodeprecated);
         builder.members = new ArrayList(
             builder.visibleMemberMap.getMembersFor(classDoc));
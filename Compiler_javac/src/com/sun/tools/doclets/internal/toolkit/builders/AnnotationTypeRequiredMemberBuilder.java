@@ -94,7 +94,8 @@ public class AnnotationTypeRequiredMemberBuilder extends AbstractMemberBuilder {
             new AnnotationTypeRequiredMemberBuilder(configuration);
         builder.classDoc = classDoc;
         builder.writer = writer;
-        builder.visibleMemberMap = new VisibleMemberMap(classDoc,
+        builder.visibleMemberMap =
+            configuration.inheritanceCache.getVisibleMemberMap(classDoc,
             VisibleMemberMap.ANNOTATION_TYPE_MEMBER_REQUIRED, configuration.nodeprecated);
         builder.members = new ArrayList(
             builder.visibleMemberMap.getMembersFor(classDoc));
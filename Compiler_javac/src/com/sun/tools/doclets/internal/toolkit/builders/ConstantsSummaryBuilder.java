@@ -264,7 +264,8 @@ public class ConstantsSummaryBuilder extends AbstractBuilder {
      * @return true if the given package has constant fields to document.
      */
     private boolean hasConstantField (ClassDoc classDoc) {
-        VisibleMemberMap visibleMemberMapFields = new VisibleMemberMap(classDoc,
+        VisibleMemberMap visibleMemberMapFields =
+            configuration.inheritanceCache.getVisibleMemberMap(classDoc,
             VisibleMemberMap.FIELDS, configuration.nodeprecated);
         List fields = visibleMemberMapFields.getLeafClassMembers(configuration);
         for (Iterator iter = fields.iterator(); iter.hasNext(); ) {
@@ -322,9 +323,11 @@ public class ConstantsSummaryBuilder extends AbstractBuilder {
          */
         public ConstantFieldBuilder(ClassDoc classdoc) {
             this.classdoc = classdoc;
-            visibleMemberMapFields = new VisibleMemberMap(classdoc,
+            visibleMemberMapFields =
+                configuration.inheritanceCache.getVisibleMemberMap(classdoc,
                 VisibleMemberMap.FIELDS, configuration.nodeprecated);
-            visibleMemberMapEnumConst = new VisibleMemberMap(classdoc,
+            visibleMemberMapEnumConst =
+                configuration.inheritanceCache.getVisibleMemberMap(classdoc,
                 VisibleMemberMap.ENUM_CONSTANTS, configuration.nodeprecated);
         }
 
@@ -99,7 +99,7 @@ public class ConstructorBuilder extends AbstractMemberBuilder {
         builder.classDoc = classDoc;
         builder.writer = writer;
         builder.visibleMemberMap =
-                new VisibleMemberMap(
+                configuration.inheritanceCache.getVisibleMemberMap(
                 classDoc,
                 VisibleMemberMap.CONSTRUCTORS,
                 configuration.nodeprecated);
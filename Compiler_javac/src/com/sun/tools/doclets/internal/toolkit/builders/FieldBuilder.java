@@ -94,7 +94,7 @@ public class FieldBuilder extends AbstractMemberBuilder {
         builder.classDoc = classDoc;
         builder.writer = writer;
         builder.visibleMemberMap =
-                new VisibleMemberMap(
+                configuration.inheritanceCache.getVisibleMemberMap(
                 classDoc,
                 VisibleMemberMap.FIELDS,
                 configuration.nodeprecated);
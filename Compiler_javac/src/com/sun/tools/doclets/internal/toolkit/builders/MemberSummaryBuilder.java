@@ -104,7 +104,7 @@ public class MemberSummaryBuilder extends AbstractMemberBuilder {
                 new VisibleMemberMap[VisibleMemberMap.NUM_MEMBER_TYPES];
         for (int i = 0; i < VisibleMemberMap.NUM_MEMBER_TYPES; i++) {
             visibleMemberMaps[i] =
-                    new VisibleMemberMap(
+                    configuration.inheritanceCache.getVisibleMemberMap(
                     classDoc,
                     i,
                     configuration.nodeprecated);
@@ -312,7 +312,8 @@ public class MemberSummaryBuilder extends AbstractMemberBuilder {
                     //Inherit comments from overriden or implemented method if
                     //necessary.
                     DocFinder.Output inheritedDoc =
-                            DocFinder.search(new DocFinder.Input((MethodDoc) member));
+                            DocFinder.search(new DocFinder.Input((MethodDoc) member),
+                                configuration.inheritanceCache);
                     if (inheritedDoc.holder != null &&
                             inheritedDoc.holder.firstSentenceTags().length > 0) {
                         firstSentenceTags = inheritedDoc.holder.firstSentenceTags();
@@ -90,7 +90,7 @@ public class MethodBuilder extends AbstractMemberBuilder {
         builder.classDoc = classDoc;
         builder.writer = writer;
         builder.visibleMemberMap =
-                new VisibleMemberMap(
+                configuration.inheritanceCache.getVisibleMemberMap(
                 classDoc,
                 VisibleMemberMap.METHODS,
                 configuration.nodeprecated);
@@ -203,7 +203,8 @@ public class MethodBuilder extends AbstractMemberBuilder {
 
             if (method.inlineTags().length == 0) {
                 DocFinder.Output docs = DocFinder.search(
-                        new DocFinder.Input(method));
+                        new DocFinder.Input(method),
+                        configuration.inheritanceCache);
                 method = docs.inlineTags != null && docs.inlineTags.length > 0 ?
                     (MethodDoc) docs.holder : method;
 
@@ -126,7 +126,8 @@ public class InheritDocTaglet extends BaseInlineTaglet {
         DocFinder.Output inheritedDoc =
             DocFinder.search(new DocFinder.Input(md,
                 (InheritableTaglet) inheritableTaglet, holderTag,
-                isFirstSentence, true));
+                isFirstSentence, true),
+                writer.configuration().inheritanceCache);
         if (inheritedDoc.isValidInheritDocTag == false) {
             writer.configuration().message.warning(md.position(),
                 "doclet.noInheritedDoc", md.name() + md.flatSignature());
@@ -226,7 +226,8 @@ public class ParamTaglet extends BaseTaglet implements InheritableTaglet {
                 //Try to inherit it.
                 DocFinder.Output inheritedDoc =
                     DocFinder.search(new DocFinder.Input((MethodDoc) holder, this,
-                        String.valueOf(i), ! isNonTypeParams));
+                        String.valueOf(i), ! isNonTypeParams),
+                        writer.configuration().inheritanceCache);
                 if (inheritedDoc.inlineTags != null &&
                         inheritedDoc.inlineTags.length > 0) {
                     result.appendOutput(
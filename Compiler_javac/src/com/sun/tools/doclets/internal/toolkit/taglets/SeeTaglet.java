@@ -64,7 +64,8 @@ public class SeeTaglet extends BaseTaglet implements InheritableTaglet {
         SeeTag[] tags = holder.seeTags();
         if (tags.length == 0 && holder instanceof MethodDoc) {
             DocFinder.Output inheritedDoc =
-                DocFinder.search(new DocFinder.Input((MethodDoc) holder, this));
+                DocFinder.search(new DocFinder.Input((MethodDoc) holder, this),
+                    writer.configuration().inheritanceCache);
             if (inheritedDoc.holder != null) {
                 tags = inheritedDoc.holder.seeTags();
             }
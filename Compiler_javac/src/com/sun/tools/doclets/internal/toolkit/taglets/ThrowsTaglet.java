@@ -115,11 +115,13 @@ public class ThrowsTaglet extends BaseExecutableMemberTaglet
             for (int j = 0; j < declaredExceptionTypes.length; j++) {
                 DocFinder.Output inheritedDoc =
                     DocFinder.search(new DocFinder.Input((MethodDoc) holder, this,
-                        declaredExceptionTypes[j].typeName()));
+                        declaredExceptionTypes[j].typeName()),
+                        writer.configuration().inheritanceCache);
                 if (inheritedDoc.tagList.size() == 0) {
                     inheritedDoc = DocFinder.search(new DocFinder.Input(
                         (MethodDoc) holder, this,
-                        declaredExceptionTypes[j].qualifiedTypeName()));
+                        declaredExceptionTypes[j].qualifiedTypeName()),
+                        writer.configuration().inheritanceCache);
                 }
                 declaredExceptionTags.addAll(inheritedDoc.tagList);
             }
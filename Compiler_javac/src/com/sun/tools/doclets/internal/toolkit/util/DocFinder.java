@@ -165,6 +165,16 @@ public class DocFinder {
          * multiple tag inheritence.
          */
         public List tagList  = new ArrayList();
+
+        public Output copy() {
+            Output clone = new Output();
+            clone.holderTag = this.holderTag;
+            clone.holder = this.holder;
+            clone.inlineTags = this.inlineTags;
+            clone.isValidInheritDocTag = this.isValidInheritDocTag;
+            clone.tagList = new ArrayList(this.tagList);
+            return clone;
+        }
     }
 
     /**
@@ -178,6 +188,23 @@ public class DocFinder {
      * @return an Output object representing the documentation that was found.
      */
     public static Output search(Input input) {
+        return doSearch(input, null);
+    }
+
+    /**
+     * Search for the requested comments as {@link #search(Input)} does,
+     * reusing the results of earlier searches recorded in the given cache.
+     *
+     * @param input the input object used to perform the search.
+     * @param cache the cache of earlier searches, or null if there is none.
+     *
+     * @return an Output object representing the documentation that was found.
+     */
+    public static Output search(Input input, InheritanceCache cache) {
+        return (cache == null) ? doSearch(input, null) : cache.search(input);
+    }
+
+    static Output doSearch(Input input, InheritanceCache cache) {
         Output output = new Output();
         if (input.isInheritDocTag) {
             //Do nothing because "method" does not have any documentation.
@@ -200,7 +227,7 @@ public class DocFinder {
         inheritedSearchInput.isInheritDocTag = false;
         if (input.method.overriddenMethod() != null) {
             inheritedSearchInput.method = input.method.overriddenMethod();
-            output = search(inheritedSearchInput);
+            output = search(inheritedSearchInput, cache);
             output.isValidInheritDocTag = true;
             if (output != null && output.inlineTags.length > 0) {
                 return output;
@@ -209,11 +236,12 @@ public class DocFinder {
         //NOTE:  When we fix the bug where ClassDoc.interfaceTypes() does
         //       not pass all implemented interfaces, we will use the
         //       appropriate method here.
-        MethodDoc[] implementedMethods =
-            (new ImplementedMethods(input.method, null)).build(false);
+        MethodDoc[] implementedMethods = (cache == null) ?
+            (new ImplementedMethods(input.method, null)).build(false) :
+            cache.getImplementedMethods(input.method);
         for (int i = 0; i < implementedMethods.length; i++) {
             inheritedSearchInput.method = implementedMethods[i];
-            output = search(inheritedSearchInput);
+            output = search(inheritedSearchInput, cache);
             output.isValidInheritDocTag = true;
             if (output != null && output.inlineTags.length > 0) {
                 return output;
@@ -28,6 +28,8 @@ package com.sun.tools.doclets.internal.toolkit.util;
 import com.sun.tools.doclets.internal.toolkit.*;
 
 import com.sun.javadoc.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.io.*;
@@ -65,6 +67,11 @@ public class Extern {
      */
     private boolean linkoffline = false;
 
+    /**
+     * The persistent cache of "package-list" files, or null if none is used.
+     */
+    private PackageListCache packageListCache;
+
     /**
      * Stores the info for one external doc set
      */
@@ -120,6 +127,25 @@ public class Extern {
         this.configuration = configuration;
     }
 
+    /**
+     * Set the persistent cache used to read "package-list" files.
+     *
+     * @param packageListCache the cache, or null to read the files directly.
+     */
+    public void setPackageListCache(PackageListCache packageListCache) {
+        this.packageListCache = packageListCache;
+    }
+
+    /**
+     * Write back the persistent cache of "package-list" files, if one is
+     * used.
+     */
+    public void savePackageListCache() {
+        if (packageListCache != null) {
+            packageListCache.save();
+        }
+    }
+
     /**
      * Determine if a doc item is externally documented.
      *
@@ -132,6 +158,28 @@ public class Extern {
         return packageToItemMap.get(doc.containingPackage().name()) != null;
     }
 
+    /**
+     * Find the externally documented package which contains a class, given
+     * its qualified name, that is, the longest prefix of the name, ending
+     * before a '.', which is the name of an external package.
+     *
+     * @param qualifiedName the qualified name of the class.
+     * @return the package name, or null if no such package is found.
+     */
+    public String findExternalPackage(String qualifiedName) {
+        if (packageToItemMap == null) {
+            return null;
+        }
+        for (int i = qualifiedName.lastIndexOf('.'); i >= 0;
+                i = qualifiedName.lastIndexOf('.', i - 1)) {
+            String packageName = qualifiedName.substring(0, i);
+            if (packageToItemMap.containsKey(packageName)) {
+                return packageName;
+            }
+        }
+        return null;
+    }
+
     /**
      * Convert a link to be an external link if appropriate.
      *
@@ -226,7 +274,11 @@ public class Extern {
                                                    String pkglisturlpath) {
         String link = pkglisturlpath + "package-list";
         try {
-            readPackageList((new URL(link)).openStream(), urlpath, false);
+            URL url = new URL(link);
+            List<String> names = (packageListCache != null) ?
+                packageListCache.getPackageNames(url) :
+                readPackageNames(url.openStream());
+            addPackages(names, urlpath, false);
         } catch (MalformedURLException exc) {
             return configuration.getText("doclet.MalformedURL", link);
         } catch (IOException exc) {
@@ -251,7 +303,10 @@ public class Extern {
         try {
             File file = new File(link);
             if (file.exists() && file.canRead()) {
-                readPackageList(new FileInputStream(file), path,
+                List<String> names = (packageListCache != null) ?
+                    packageListCache.getPackageNames(file) :
+                    readPackageNames(new FileInputStream(file));
+                addPackages(names, path,
                     ! ((new File(path)).isAbsolute() || isUrl(path)));
             } else {
                 return configuration.getText("doclet.File_error", link);
@@ -265,16 +320,14 @@ public class Extern {
     }
 
     /**
-     * Read the file "package-list" and for each package name found, create
-     * Extern object and associate it with the package name in the map.
+     * Read the package names from a "package-list" file.
      *
      * @param input    InputStream from the "package-list" file.
-     * @param path     URL or the directory path to the packages.
-     * @param relative Is path relative?
+     * @return the package names, in the order they are listed.
      */
-    private void readPackageList(InputStream input, String path,
-                                boolean relative)
+    static List<String> readPackageNames(InputStream input)
                          throws IOException {
+        List<String> names = new ArrayList<String>();
         BufferedReader in = new BufferedReader(new InputStreamReader(input));
         StringBuffer strbuf = new StringBuffer();
         try {
@@ -283,10 +336,7 @@ public class Extern {
                 char ch = (char)c;
                 if (ch == '\n' || ch == '\r') {
                     if (strbuf.length() > 0) {
-                        String packname = strbuf.toString();
-                        String packpath = path +
-                                      packname.replace('.', '/') + '/';
-                        new Item(packname, packpath, relative);
+                        names.add(strbuf.toString());
                         strbuf.setLength(0);
                     }
                 } else {
@@ -296,6 +346,23 @@ public class Extern {
         } finally {
             input.close();
         }
+        return names;
+    }
+
+    /**
+     * For each package name read from a "package-list" file, create
+     * Extern object and associate it with the package name in the map.
+     *
+     * @param names    The package names.
+     * @param path     URL or the directory path to the packages.
+     * @param relative Is path relative?
+     */
+    private void addPackages(List<String> names, String path,
+                             boolean relative) {
+        for (String packname : names) {
+            String packpath = path + packname.replace('.', '/') + '/';
+            new Item(packname, packpath, relative);
+        }
     }
 
     public boolean isUrl (String urlCandidate) {
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tools.doclets.internal.toolkit.util;
+
+import com.sun.javadoc.*;
+import com.sun.tools.doclets.internal.toolkit.taglets.*;
+import java.util.*;
+
+/**
+ * A cache of the inheritance information computed while documenting a set
+ * of classes: the visible member maps of each class, the members declared by
+ * each class in the hierarchy, the methods implemented by each method and the
+ * results of searching for inherited documentation.  Each of these is
+ * computed once per run and then reused, in particular by the subclasses of
+ * the class that it was first computed for.
+ *
+ * This code is not part of an API.
+ * It is implementation that is subject to change.
+ * Do not use it as an API
+ *
+ * @since 1.7
+ */
+public class InheritanceCache {
+
+    /**
+     * The visible member maps, keyed by class, member kind and whether
+     * deprecated members are excluded.
+     */
+    private final Map<Key, VisibleMemberMap> visibleMemberMaps =
+        new HashMap<Key, VisibleMemberMap>();
+
+    /**
+     * The members declared by each class, keyed by class, member kind,
+     * whether deprecated members are excluded and whether the members
+     * are filtered.
+     */
+    private final Map<Key, List> classMembers = new HashMap<Key, List>();
+
+    /**
+     * The methods implemented by each method.
+     */
+    private final Map<MethodDoc, MethodDoc[]> implementedMethods =
+        new HashMap<MethodDoc, MethodDoc[]>();
+
+    /**
+     * The results of searching for documentation.
+     */
+    private final Map<SearchKey, DocFinder.Output> searches =
+        new HashMap<SearchKey, DocFinder.Output>();
+
+    private int visibleMemberMapRequests;
+    private int visibleMemberMapHits;
+    private int classMembersRequests;
+    private int classMembersHits;
+    private int searchRequests;
+    private int searchHits;
+
+    /**
+     * Return the map of the visible members of the given kind for the given
+     * class, building it if it has not been built before.
+     *
+     * @param classdoc the class whose members are being mapped.
+     * @param kind the kind of member that is being mapped.
+     * @param nodepr if true, exclude the deprecated members from the map.
+     * @return the visible member map.
+     */
+    public VisibleMemberMap getVisibleMemberMap(ClassDoc classdoc, int kind,
+            boolean nodepr) {
+        visibleMemberMapRequests++;
+        Key key = new Key(classdoc, kind, nodepr, false);
+        VisibleMemberMap map = visibleMemberMaps.get(key);
+        if (map == null) {
+            map = new VisibleMemberMap(classdoc, kind, nodepr, this);
+            visibleMemberMaps.put(key, map);
+        } else {
+            visibleMemberMapHits++;
+        }
+        return map;
+    }
+
+    /**
+     * Return the recorded list of members of the given kind declared by the
+     * given class, or null if it has not been recorded yet.
+     */
+    List getClassMembers(ClassDoc cd, int kind, boolean nodepr, boolean filter) {
+        classMembersRequests++;
+        List members = classMembers.get(new Key(cd, kind, nodepr, filter));
+        if (members != null)
+            classMembersHits++;
+        return members;
+    }
+
+    /**
+     * Record the list of members of the given kind declared by the given
+     * class.  The list must not be modified afterwards.
+     */
+    void putClassMembers(ClassDoc cd, int kind, boolean nodepr, boolean filter,
+            List members) {
+        classMembers.put(new Key(cd, kind, nodepr, filter), members);
+    }
+
+    /**
+     * Return the methods implemented by the given method, unsorted.
+     */
+    MethodDoc[] getImplementedMethods(MethodDoc method) {
+        MethodDoc[] methods = implementedMethods.get(method);
+        if (methods == null) {
+            methods = new ImplementedMethods(method, null).build(false);
+            implementedMethods.put(method, methods);
+        }
+        return methods;
+    }
+
+    /**
+     * Search for the requested documentation, reusing the result of an
+     * earlier search with the same input if there was one.
+     */
+    DocFinder.Output search(DocFinder.Input input) {
+        searchRequests++;
+        // The key must be made before searching, because taglets may
+        // update the input while searching.
+        SearchKey key = new SearchKey(input);
+        DocFinder.Output output = searches.get(key);
+        if (output == null) {
+            output = DocFinder.doSearch(input, this);
+            searches.put(key, output);
+        } else {
+            searchHits++;
+        }
+        return output.copy();
+    }
+
+    /**
+     * Print the number of requests made of the cache and the number of them
+     * which were satisfied from the cache.
+     *
+     * @param message the message retriever to print the report with.
+     */
+    public void printReport(MessageRetriever message) {
+        message.notice("doclet.Notice_inheritance_cache_stats",
+            visibleMemberMapHits, visibleMemberMapRequests,
+            classMembersHits, classMembersRequests,
+            searchHits, searchRequests);
+    }
+
+    /**
+     * The key for a class and member kind.
+     */
+    private static class Key {
+        private final ClassDoc cd;
+        private final int kind;
+        private final boolean nodepr;
+        private final boolean filter;
+
+        Key(ClassDoc cd, int kind, boolean nodepr, boolean filter) {
+            this.cd = cd;
+            this.kind = kind;
+            this.nodepr = nodepr;
+            this.filter = filter;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return cd == k.cd && kind == k.kind
+                && nodepr == k.nodepr && filter == k.filter;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(cd) * 31 + kind * 4
+                + (nodepr ? 2 : 0) + (filter ? 1 : 0);
+        }
+    }
+
+    /**
+     * The key for a search for documentation, made from all the fields of
+     * the search input.
+     */
+    private static class SearchKey {
+        private final MethodDoc method;
+        private final InheritableTaglet taglet;
+        private final String tagId;
+        private final Tag tag;
+        private final int flags;
+
+        SearchKey(DocFinder.Input input) {
+            method = input.method;
+            taglet = input.taglet;
+            tagId = input.tagId;
+            tag = input.tag;
+            flags = (input.isFirstSentence ? 1 : 0)
+                | (input.isInheritDocTag ? 2 : 0)
+                | (input.isTypeVariableParamTag ? 4 : 0);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof SearchKey))
+                return false;
+            SearchKey k = (SearchKey) o;
+            return method == k.method && taglet == k.taglet && tag == k.tag
+                && flags == k.flags
+                && (tagId == null ? k.tagId == null : tagId.equals(k.tagId));
+        }
+
+        public int hashCode() {
+            int h = System.identityHashCode(method);
+            h = h * 31 + System.identityHashCode(taglet);
+            h = h * 31 + System.identityHashCode(tag);
+            h = h * 31 + (tagId == null ? 0 : tagId.hashCode());
+            return h * 31 + flags;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tools.doclets.internal.toolkit.util;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * A persistent cache of the package names in the "package-list" files used
+ * by "-link" and "-linkoffline", so that they do not need to be read or
+ * fetched again on every run.  Local files are reread only if their length
+ * or last modified time has changed.  URLs are fetched with a conditional
+ * request using the last modified time reported when they were cached, and
+ * are only read again if the server reports that they have changed.
+ *
+ * The cache is enabled with "-xlinkcache &lt;file&gt;".  A cache file that
+ * is missing or cannot be read is treated as empty, and failure to write
+ * the cache file back is silently ignored.
+ *
+ * This code is not part of an API.
+ * It is implementation that is subject to change.
+ * Do not use it as an API
+ *
+ * @since 1.7
+ */
+public class PackageListCache {
+
+    private static final int VERSION = 1;
+
+    private final File cacheFile;
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private boolean loaded = false;
+    private boolean modified = false;
+
+    public PackageListCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Return the package names listed in a local "package-list" file.
+     */
+    List<String> getPackageNames(File file) throws IOException {
+        load();
+        String key = file.getCanonicalPath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        Entry e = entries.get(key);
+        if (e == null || e.length != length || e.lastModified != lastModified) {
+            List<String> names = Extern.readPackageNames(new FileInputStream(file));
+            e = new Entry(length, lastModified, names);
+            entries.put(key, e);
+            modified = true;
+        }
+        return e.names;
+    }
+
+    /**
+     * Return the package names listed in a "package-list" file at a URL.
+     */
+    List<String> getPackageNames(URL url) throws IOException {
+        load();
+        String key = url.toString();
+        Entry e = entries.get(key);
+        URLConnection conn = url.openConnection();
+        if (e != null) {
+            conn.setIfModifiedSince(e.lastModified);
+            if (conn instanceof HttpURLConnection &&
+                    ((HttpURLConnection) conn).getResponseCode() ==
+                        HttpURLConnection.HTTP_NOT_MODIFIED) {
+                ((HttpURLConnection) conn).disconnect();
+                return e.names;
+            }
+        }
+        List<String> names = Extern.readPackageNames(conn.getInputStream());
+        long lastModified = conn.getLastModified();
+        if (lastModified != 0) {
+            entries.put(key, new Entry(-1, lastModified, names));
+            modified = true;
+        } else if (e != null) {
+            // the server cannot tell us when it changes, so do not keep it
+            entries.remove(key);
+            modified = true;
+        }
+        return names;
+    }
+
+    /**
+     * Write the cache back to the cache file, if any entries were added or
+     * replaced since it was read.
+     */
+    public void save() {
+        if (!modified)
+            return;
+        File tmpFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            try {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> me : entries.entrySet()) {
+                    Entry e = me.getValue();
+                    out.writeUTF(me.getKey());
+                    out.writeLong(e.length);
+                    out.writeLong(e.lastModified);
+                    out.writeInt(e.names.size());
+                    for (String name : e.names)
+                        out.writeUTF(name);
+                }
+            } finally {
+                out.close();
+            }
+            if (!tmpFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                tmpFile.renameTo(cacheFile);
+            }
+            modified = false;
+        } catch (IOException e) {
+            // ignore: the cache will be rebuilt on the next run
+            tmpFile.delete();
+        }
+    }
+
+    private void load() {
+        if (loaded)
+            return;
+        loaded = true;
+        if (!cacheFile.exists())
+            return;
+        try {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (in.readInt() != VERSION)
+                    return;
+                // every name takes at least two bytes
+                long maxCount = cacheFile.length() / 2;
+                for (int n = in.readInt(); n > 0; n--) {
+                    String key = in.readUTF();
+                    long length = in.readLong();
+                    long lastModified = in.readLong();
+                    int count = in.readInt();
+                    if (count < 0 || count > maxCount)
+                        throw new IOException("bad package count: " + count);
+                    List<String> names = new ArrayList<String>(count);
+                    for (int i = 0; i < count; i++)
+                        names.add(in.readUTF());
+                    entries.put(key, new Entry(length, lastModified, names));
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // ignore: treat a damaged cache file as empty
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+        final long length;
+        final long lastModified;
+        final List<String> names;
+
+        Entry(long length, long lastModified, List<String> names) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.names = names;
+        }
+    }
+}
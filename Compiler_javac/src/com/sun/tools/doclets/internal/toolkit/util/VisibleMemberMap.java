@@ -95,6 +95,11 @@ public class VisibleMemberMap {
      */
     private final boolean nodepr;
 
+    /**
+     * The cache shared with the other maps built in this run, or null.
+     */
+    private final InheritanceCache cache;
+
     /**
      * Construct a VisibleMemberMap of the given type for the given
      * class.  If nodepr is true, exclude the deprecated members from
@@ -105,9 +110,26 @@ public class VisibleMemberMap {
      * @param nodepr if true, exclude the deprecated members from the map.
      */
     public VisibleMemberMap(ClassDoc classdoc, int kind, boolean nodepr) {
+        this(classdoc, kind, nodepr, null);
+    }
+
+    /**
+     * Construct a VisibleMemberMap of the given type for the given
+     * class, sharing the members declared by each class in the tree
+     * with the other maps built using the given cache.
+     *
+     * @param classdoc the class whose members are being mapped.
+     * @param kind the kind of member that is being mapped.
+     * @param nodepr if true, exclude the deprecated members from the map.
+     * @param cache the cache of class members, or null if there is none.
+     * @see InheritanceCache#getVisibleMemberMap
+     */
+    VisibleMemberMap(ClassDoc classdoc, int kind, boolean nodepr,
+            InheritanceCache cache) {
         this.classdoc = classdoc;
         this.nodepr = nodepr;
         this.kind = kind;
+        this.cache = cache;
         new ClassMembers(classdoc, STARTLEVEL).build();
     }
 
@@ -118,7 +140,7 @@ public class VisibleMemberMap {
      */
     public List getVisibleClassesList() {
         sort(visibleClasses);
-        return visibleClasses;
+        return new ArrayList(visibleClasses);
     }
 
     /**
@@ -157,7 +179,8 @@ public class VisibleMemberMap {
     }
 
     /**
-     * Retrn the list of members for the given class.
+     * Retrn the list of members for the given class.  The list is a copy,
+     * which the caller may modify, since the map may be shared.
      *
      * @param cd the class to retrieve the list of visible members for.
      *
@@ -168,7 +191,7 @@ public class VisibleMemberMap {
         if (clmembers == null) {
             return new ArrayList();
         }
-        return clmembers.getMembers();
+        return new ArrayList(clmembers.getMembers());
     }
 
     /**
@@ -371,9 +394,25 @@ public class VisibleMemberMap {
         }
 
         /**
-         * Return all available class members.
+         * Return all available class members, sharing them with the other
+         * maps that use the same cache.
          */
         private List getClassMembers(ClassDoc cd, boolean filter) {
+            if (cache == null) {
+                return computeClassMembers(cd, filter);
+            }
+            List members = cache.getClassMembers(cd, kind, nodepr, filter);
+            if (members == null) {
+                members = computeClassMembers(cd, filter);
+                cache.putClassMembers(cd, kind, nodepr, filter, members);
+            }
+            return members;
+        }
+
+        /**
+         * Compute all available class members.
+         */
+        private List computeClassMembers(ClassDoc cd, boolean filter) {
             if (cd.isEnum() && kind == CONSTRUCTORS) {
                 //If any of these rules are hit, return empty array because
                 //we don't document these members ever.
@@ -2308,32 +2308,39 @@ public class Types {
     }
 
     /**
-     * Insert a type in a closure
+     * Insert a type in a closure.  Cells of the closure are only copied
+     * if the type is not already in it.
      */
     public List<Type> insert(List<Type> cl, Type t) {
         if (cl.isEmpty() || t.tsym.precedes(cl.head.tsym, this)) {
             return cl.prepend(t);
         } else if (cl.head.tsym.precedes(t.tsym, this)) {
-            return insert(cl.tail, t).prepend(cl.head);
+            List<Type> tail = insert(cl.tail, t);
+            return (tail == cl.tail) ? cl : tail.prepend(cl.head);
         } else {
             return cl;
         }
     }
 
     /**
-     * Form the union of two closures
+     * Form the union of two closures.  Cells of the first closure are
+     * shared, rather than copied, wherever the second one adds nothing
+     * after them, so the first closure itself is returned if it already
+     * contains the second.
      */
     public List<Type> union(List<Type> cl1, List<Type> cl2) {
-        if (cl1.isEmpty()) {
-            return cl2;
-        } else if (cl2.isEmpty()) {
+        if (cl2.isEmpty()) {
             return cl1;
+        } else if (cl1.isEmpty()) {
+            return cl2;
         } else if (cl1.head.tsym.precedes(cl2.head.tsym, this)) {
-            return union(cl1.tail, cl2).prepend(cl1.head);
+            List<Type> tail = union(cl1.tail, cl2);
+            return (tail == cl1.tail) ? cl1 : tail.prepend(cl1.head);
         } else if (cl2.head.tsym.precedes(cl1.head.tsym, this)) {
             return union(cl1, cl2.tail).prepend(cl2.head);
         } else {
-            return union(cl1.tail, cl2.tail).prepend(cl1.head);
+            List<Type> tail = union(cl1.tail, cl2.tail);
+            return (tail == cl1.tail) ? cl1 : tail.prepend(cl1.head);
         }
     }
 
@@ -428,6 +428,8 @@ public class Attr extends JCTree.Visitor {
     /** Attribute the arguments in a method call, returning a list of types.
      */
     List<Type> attribArgs(List<JCExpression> trees, Env<AttrContext> env) {
+        if (trees.isEmpty())
+            return List.nil();
         ListBuffer<Type> argtypes = new ListBuffer<Type>();
         for (List<JCExpression> l = trees; l.nonEmpty(); l = l.tail)
             argtypes.append(chk.checkNonVoid(
@@ -438,6 +440,8 @@ public class Attr extends JCTree.Visitor {
     /** Attribute a type argument list, returning a list of types.
      */
     List<Type> attribTypes(List<JCExpression> trees, Env<AttrContext> env) {
+        if (trees.isEmpty())
+            return List.nil();
         ListBuffer<Type> argtypes = new ListBuffer<Type>();
         for (List<JCExpression> l = trees; l.nonEmpty(); l = l.tail)
             argtypes.append(chk.checkRefType(l.head.pos(), attribType(l.head, env)));
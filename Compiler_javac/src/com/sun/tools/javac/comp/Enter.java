@@ -103,6 +103,7 @@ public class Enter extends JCTree.Visitor {
     Lint lint;
     Name.Table names;
     JavaFileManager fileManager;
+    ClassFilePrefetcher prefetcher;
 
     private final Todo todo;
 
@@ -132,6 +133,7 @@ public class Enter extends JCTree.Visitor {
         predefClassDef.sym = syms.predefClass;
         todo = Todo.instance(context);
         fileManager = context.get(JavaFileManager.class);
+        prefetcher = ClassFilePrefetcher.instance(context);
     }
 
     /** A hashtable mapping classes and packages to the environments current
@@ -473,6 +475,10 @@ public class Enter extends JCTree.Visitor {
             // enter all classes, and construct uncompleted list
             classEnter(trees, null);
 
+            // start reading the class files that memberEnter will need
+            if (prefetcher != null && memberEnter.completionEnabled)
+                prefetchClassFiles(trees);
+
             // complete all uncompleted classes in memberEnter
             if  (memberEnter.completionEnabled) {
                 while (uncompleted.nonEmpty()) {
@@ -502,4 +508,66 @@ public class Enter extends JCTree.Visitor {
             annotate.enterDone();
         }
     }
+
+    /** Start reading the class files of the classes named in the
+     *  single-type imports and in the supertypes of the top level classes
+     *  of the given trees, which memberEnter will complete.  Only packages
+     *  which memberEnter would also complete are looked up.
+     */
+    private void prefetchClassFiles(List<JCCompilationUnit> trees) {
+        for (JCCompilationUnit tree : trees) {
+            Set<Name> imported = new HashSet<Name>();
+            for (JCTree def : tree.defs) {
+                if (def.getTag() == JCTree.IMPORT) {
+                    JCImport imp = (JCImport)def;
+                    Name name = TreeInfo.name(imp.qualid);
+                    if (!imp.staticImport && name != names.asterisk) {
+                        imported.add(name);
+                        prefetchClassFile(TreeInfo.fullName(imp.qualid));
+                    }
+                } else if (def.getTag() == JCTree.CLASSDEF) {
+                    JCClassDecl cdef = (JCClassDecl)def;
+                    ListBuffer<JCTree> supertypes = new ListBuffer<JCTree>();
+                    if (cdef.extending != null)
+                        supertypes.append(cdef.extending);
+                    for (JCExpression iface : cdef.implementing)
+                        supertypes.append(iface);
+                    for (JCTree supertype : supertypes) {
+                        if (supertype.getTag() == JCTree.TYPEAPPLY)
+                            supertype = ((JCTypeApply)supertype).clazz;
+                        if (supertype.getTag() == JCTree.SELECT) {
+                            prefetchClassFile(TreeInfo.fullName(supertype));
+                        } else if (supertype.getTag() == JCTree.IDENT) {
+                            Name name = ((JCIdent)supertype).name;
+                            if (imported.contains(name))
+                                continue;
+                            if (tree.packge == syms.unnamedPackage
+                                || !prefetchClassFile(tree.packge.fullname.append('.', name)))
+                                prefetchClassFile(names.java_lang.append('.', name));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Start reading the class file of a class, given its full name,
+     *  returning true if the class exists.
+     */
+    private boolean prefetchClassFile(Name fullname) {
+        PackageSymbol p = reader.enterPackage(Convert.packagePart(fullname));
+        Symbol.Completer completer = p.completer;
+        try {
+            p.complete();
+        } catch (CompletionFailure ex) {
+            // leave the failure to be reported when the package is used
+            p.completer = completer;
+            return false;
+        }
+        Symbol sym = p.members().lookup(Convert.shortName(fullname)).sym;
+        if (sym == null || sym.kind != TYP)
+            return false;
+        prefetcher.prefetch((ClassSymbol)sym);
+        return true;
+    }
 }
@@ -35,6 +35,10 @@ import com.sun.tools.javac.code.Type.*;
 import com.sun.tools.javac.code.Symbol.*;
 import com.sun.tools.javac.tree.JCTree.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
 import static com.sun.tools.javac.code.Flags.*;
 import static com.sun.tools.javac.code.Kinds.*;
 import static com.sun.tools.javac.code.TypeTags.*;
@@ -262,6 +266,8 @@ public class Resolve {
      *  of un underdetermined site In this case, we treat site as an additional
      *  parameter and the parameters of the class containing the method as
      *  additional type variables that get instantiated.
+     *  Instantiations inferred from nothing but the site and the argument
+     *  types are remembered, see instKey.
      *
      *  @param env         The current environment
      *  @param site        The type of which the method is a member.
@@ -281,6 +287,152 @@ public class Resolve {
                         Warner warn)
         throws Infer.InferenceException {
         if (useVarargs && (m.flags() & VARARGS) == 0) return null;
+        InstKey key = instKey(env, site, m, argtypes, typeargtypes,
+                              allowBoxing, useVarargs, warn);
+        if (key == null)
+            return rawInstantiateInternal(env, site, m, argtypes, typeargtypes,
+                                          allowBoxing, useVarargs, warn);
+        MethodType cached = instCache.get(key);
+        if (cached != null)
+            return cached;
+        // infer with a warner of our own, to tell whether the
+        // instantiation needs an unchecked conversion
+        Warner instWarn = new Warner(warn.pos());
+        try {
+            Type mt = rawInstantiateInternal(env, site, m, argtypes, typeargtypes,
+                                             allowBoxing, useVarargs, instWarn);
+            if (mt != null &&
+                mt.tag == METHOD &&
+                mt.getReturnType().tag != FORALL &&
+                !instWarn.unchecked)
+                instCache.put(key, (MethodType)mt);
+            return mt;
+        } finally {
+            if (instWarn.warned)
+                warn.warnUnchecked();
+            else if (instWarn.unchecked)
+                warn.silentUnchecked();
+        }
+    }
+    //where
+        /** Method instantiations found by rawInstantiate for which no
+         *  type variables were left undetermined and no unchecked
+         *  conversion was needed.
+         */
+        private final Map<InstKey, MethodType> instCache = new HashMap<InstKey, MethodType>();
+
+        /** The inputs of a call of rawInstantiate that infers the type
+         *  arguments of a generic method.  The method symbol is compared
+         *  by identity; the site and argument types are compared
+         *  structurally, see addKey.
+         */
+        private static class InstKey {
+            final Symbol m;
+            final java.util.List<Object> typeKey;
+            final boolean allowBoxing;
+            final boolean useVarargs;
+
+            InstKey(Symbol m, java.util.List<Object> typeKey,
+                    boolean allowBoxing, boolean useVarargs) {
+                this.m = m;
+                this.typeKey = typeKey;
+                this.allowBoxing = allowBoxing;
+                this.useVarargs = useVarargs;
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                if (!(other instanceof InstKey))
+                    return false;
+                InstKey k = (InstKey)other;
+                return m == k.m &&
+                    allowBoxing == k.allowBoxing &&
+                    useVarargs == k.useVarargs &&
+                    typeKey.equals(k.typeKey);
+            }
+
+            @Override
+            public int hashCode() {
+                return System.identityHashCode(m) * 31 + typeKey.hashCode();
+            }
+        }
+
+        /** Return the key for a call of rawInstantiate, or null if the
+         *  result of the call cannot be remembered.  Only the type
+         *  variables of a generic method without explicit type arguments
+         *  are inferred from nothing but the site and the argument types;
+         *  warners other than plain ones may report diagnostics.
+         */
+        private InstKey instKey(Env<AttrContext> env, Type site, Symbol m,
+                                List<Type> argtypes, List<Type> typeargtypes,
+                                boolean allowBoxing, boolean useVarargs,
+                                Warner warn) {
+            if (m.type.tag != FORALL ||
+                (typeargtypes != null && typeargtypes.nonEmpty()) ||
+                env.info.tvars.nonEmpty() ||
+                warn.getClass() != Warner.class)
+                return null;
+            java.util.List<Object> key = new ArrayList<Object>();
+            if (!addKey(site, key))
+                return null;
+            for (Type t : argtypes) {
+                if (!addKey(t.baseType(), key))
+                    return null;
+            }
+            return new InstKey(m, key, allowBoxing, useVarargs);
+        }
+
+        /** Add a structural key of a type built from classes, arrays,
+         *  primitive types, null and type variables.  Other types, such
+         *  as captured type variables, wildcards and the polymorphic types
+         *  of generic method calls, are new for each call, and erroneous
+         *  types do not lead to a proper instantiation.
+         */
+        private boolean addKey(Type t, java.util.List<Object> key) {
+            if (t.isPrimitive()) {
+                key.add(t.tag);
+                return true;
+            }
+            switch (t.tag) {
+            case BOT:
+                key.add(t.tag);
+                return true;
+            case TYPEVAR:
+                if (t instanceof CapturedType)
+                    return false;
+                key.add(t);
+                return true;
+            case ARRAY:
+                key.add(t.tag);
+                return addKey(((ArrayType)t).elemtype, key);
+            case CLASS:
+                if (t.isErroneous())
+                    return false;
+                key.add(t.tsym);
+                Type outer = t.getEnclosingType();
+                if (outer.tag == CLASS && !addKey(outer, key))
+                    return false;
+                List<Type> typarams = t.getTypeArguments();
+                key.add(typarams.length());
+                for (Type a : typarams) {
+                    if (!addKey(a, key))
+                        return false;
+                }
+                return true;
+            default:
+                return false;
+            }
+        }
+
+    private Type rawInstantiateInternal(Env<AttrContext> env,
+                                        Type site,
+                                        Symbol m,
+                                        List<Type> argtypes,
+                                        List<Type> typeargtypes,
+                                        boolean allowBoxing,
+                                        boolean useVarargs,
+                                        Warner warn)
+        throws Infer.InferenceException {
         Type mt = types.memberType(site, m);
 
         // tvars is the list of formal type variables for which type arguments
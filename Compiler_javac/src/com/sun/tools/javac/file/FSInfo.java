@@ -63,32 +63,47 @@ public class FSInfo {
     }
 
     public List<File> getJarClassPath(File file) throws IOException {
-        String parent = file.getParent();
+        return resolveJarClassPath(file, readJarClassPath(file));
+    }
+
+    /**
+     * Read the raw value of the Class-Path manifest attribute of a jar file.
+     * @return the attribute value, or null if the jar has no such attribute
+     */
+    static String readJarClassPath(File file) throws IOException {
         JarFile jarFile = new JarFile(file);
         try {
             Manifest man = jarFile.getManifest();
             if (man == null)
-                return Collections.emptyList();
+                return null;
 
             Attributes attr = man.getMainAttributes();
             if (attr == null)
-                return Collections.emptyList();
+                return null;
 
-            String path = attr.getValue(Attributes.Name.CLASS_PATH);
-            if (path == null)
-                return Collections.emptyList();
+            return attr.getValue(Attributes.Name.CLASS_PATH);
+        } finally {
+            jarFile.close();
+        }
+    }
 
-            List<File> list = new ArrayList<File>();
+    /**
+     * Resolve the elements of a Class-Path manifest attribute against the
+     * directory containing the jar file in which it was found.
+     */
+    static List<File> resolveJarClassPath(File file, String path) {
+        if (path == null)
+            return Collections.emptyList();
 
-            for (StringTokenizer st = new StringTokenizer(path); st.hasMoreTokens(); ) {
-                String elt = st.nextToken();
-                File f = (parent == null ? new File(elt) : new File(parent, elt));
-                list.add(f);
-            }
+        String parent = file.getParent();
+        List<File> list = new ArrayList<File>();
 
-            return list;
-        } finally {
-            jarFile.close();
+        for (StringTokenizer st = new StringTokenizer(path); st.hasMoreTokens(); ) {
+            String elt = st.nextToken();
+            File f = (parent == null ? new File(elt) : new File(parent, elt));
+            list.add(f);
         }
+
+        return list;
     }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tools.javac.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A persistent cache of the Class-Path manifest attributes of jar files,
+ *  so that expanding the user class path does not need to open every jar
+ *  on every run.  Entries are keyed by the canonical jar file and are
+ *  only used if the length and last modified time of the jar still match.
+ *
+ *  The cache is enabled with "-XDjarclasspathcache=<file>".  A cache file
+ *  that is missing or cannot be read is treated as empty, and failure to
+ *  write the cache file back is silently ignored.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class JarClassPathCache {
+    private static final int VERSION = 1;
+
+    private final File cacheFile;
+    private final FSInfo fsInfo;
+    private final Map<File, Entry> entries = new HashMap<File, Entry>();
+    private boolean loaded = false;
+    private boolean modified = false;
+
+    public JarClassPathCache(File cacheFile, FSInfo fsInfo) {
+        this.cacheFile = cacheFile;
+        this.fsInfo = fsInfo;
+    }
+
+    /**
+     * Get the files referenced by the Class-Path manifest attribute of a jar
+     * file, reading the manifest only if there is no up to date entry.
+     */
+    public List<File> getJarClassPath(File jarFile) throws IOException {
+        load();
+        File key = fsInfo.getCanonicalFile(jarFile);
+        long length = key.length();
+        long lastModified = key.lastModified();
+        Entry e = entries.get(key);
+        if (e == null || e.length != length || e.lastModified != lastModified) {
+            e = new Entry(length, lastModified, FSInfo.readJarClassPath(jarFile));
+            entries.put(key, e);
+            modified = true;
+        }
+        return FSInfo.resolveJarClassPath(jarFile, e.classPath);
+    }
+
+    /**
+     * Write the cache back to the cache file, if any entries were added or
+     * replaced since it was read.
+     */
+    public void save() {
+        if (!modified)
+            return;
+        File tmpFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            try {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<File, Entry> me : entries.entrySet()) {
+                    Entry e = me.getValue();
+                    out.writeUTF(me.getKey().getPath());
+                    out.writeLong(e.length);
+                    out.writeLong(e.lastModified);
+                    out.writeBoolean(e.classPath != null);
+                    if (e.classPath != null)
+                        out.writeUTF(e.classPath);
+                }
+            } finally {
+                out.close();
+            }
+            if (!tmpFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                tmpFile.renameTo(cacheFile);
+            }
+            modified = false;
+        } catch (IOException e) {
+            // ignore: the cache will be rebuilt on the next run
+            tmpFile.delete();
+        }
+    }
+
+    private void load() {
+        if (loaded)
+            return;
+        loaded = true;
+        if (!cacheFile.exists())
+            return;
+        try {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (in.readInt() != VERSION)
+                    return;
+                for (int n = in.readInt(); n > 0; n--) {
+                    File key = new File(in.readUTF());
+                    long length = in.readLong();
+                    long lastModified = in.readLong();
+                    String classPath = in.readBoolean() ? in.readUTF() : null;
+                    entries.put(key, new Entry(length, lastModified, classPath));
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // ignore: treat a damaged cache file as empty
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+        final long length;
+        final long lastModified;
+        final String classPath;
+
+        Entry(long length, long lastModified, String classPath) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.classPath = classPath;
+        }
+    }
+}
@@ -46,6 +46,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.zip.ZipFile;
 
 import javax.lang.model.SourceVersion;
@@ -110,6 +113,7 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
 
     protected boolean mmappedIO;
     protected boolean ignoreSymbolFile;
+    protected boolean usePackageIndex;
 
     protected enum SortFiles implements Comparator<File> {
         FORWARD {
@@ -167,6 +171,7 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
 
         mmappedIO = options.get("mmappedIO") != null;
         ignoreSymbolFile = options.get("ignore.symbol.file") != null;
+        usePackageIndex = options.get("packageIndex") != null;
 
         String sf = options.get("sortFiles");
         if (sf != null) {
@@ -372,6 +377,26 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
                     resultList);
     }
 
+    /**
+     * Get the archive for a container, opening it if necessary.
+     * Returns null if the container is a directory.  If the archive
+     * cannot be opened, the error is reported and an empty archive
+     * is returned.
+     */
+    Archive getArchive(File container) {
+        Archive archive = archives.get(container);
+        if (archive == null && !fsInfo.isDirectory(container)) {
+            try {
+                archive = openArchive(container);
+            } catch (IOException ex) {
+                log.error("error.reading.file",
+                          container, getMessage(ex));
+                archive = new MissingArchive(container);
+            }
+        }
+        return archive;
+    }
+
     private boolean isValidFile(String s, Set<JavaFileObject.Kind> fileKinds) {
         JavaFileObject.Kind kind = getKind(s);
         return fileKinds.contains(kind);
@@ -468,17 +493,7 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
      */
     protected Archive openArchive(File zipFileName) throws IOException {
         File origZipFileName = zipFileName;
-        if (!ignoreSymbolFile && paths.isBootClassPathRtJar(zipFileName)) {
-            File file = zipFileName.getParentFile().getParentFile(); // ${java.home}
-            if (new File(file.getName()).equals(new File("jre")))
-                file = file.getParentFile();
-            // file == ${jdk.home}
-            for (String name : symbolFileLocation)
-                file = new File(file, name);
-            // file == ${jdk.home}/lib/ct.sym
-            if (file.exists())
-                zipFileName = file;
-        }
+        zipFileName = getSymbolFile(zipFileName);
 
         Archive archive;
         try {
@@ -493,28 +508,7 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
             }
             else {
                 usePreindexedCache = options.get("usezipindex") != null;
-                preindexCacheLocation = options.get("java.io.tmpdir");
-                String optCacheLoc = options.get("cachezipindexdir");
-
-                if (optCacheLoc != null && optCacheLoc.length() != 0) {
-                    if (optCacheLoc.startsWith("\"")) {
-                        if (optCacheLoc.endsWith("\"")) {
-                            optCacheLoc = optCacheLoc.substring(1, optCacheLoc.length() - 1);
-                        }
-                        else {
-                            optCacheLoc = optCacheLoc.substring(1);
-                        }
-                    }
-
-                    File cacheDir = new File(optCacheLoc);
-                    if (cacheDir.exists() && cacheDir.canWrite()) {
-                        preindexCacheLocation = optCacheLoc;
-                        if (!preindexCacheLocation.endsWith("/") &&
-                            !preindexCacheLocation.endsWith(File.separator)) {
-                            preindexCacheLocation += File.separator;
-                        }
-                    }
-                }
+                preindexCacheLocation = getPreindexCacheLocation();
             }
 
             if (origZipFileName == zipFileName) {
@@ -552,6 +546,116 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
         archives.put(origZipFileName, archive);
         return archive;
     }
+    // where
+        /** If zipFileName is rt.jar on the default boot class path, and
+         *  ct.sym is available and not ignored, return ct.sym; otherwise
+         *  return zipFileName.
+         */
+        private File getSymbolFile(File zipFileName) {
+            if (!ignoreSymbolFile && paths.isBootClassPathRtJar(zipFileName)) {
+                File file = zipFileName.getParentFile().getParentFile(); // ${java.home}
+                if (new File(file.getName()).equals(new File("jre")))
+                    file = file.getParentFile();
+                // file == ${jdk.home}
+                for (String name : symbolFileLocation)
+                    file = new File(file, name);
+                // file == ${jdk.home}/lib/ct.sym
+                if (file.exists())
+                    return file;
+            }
+            return zipFileName;
+        }
+
+        private String getPreindexCacheLocation() {
+            String preindexCacheLocation = options.get("java.io.tmpdir");
+            String optCacheLoc = options.get("cachezipindexdir");
+
+            if (optCacheLoc != null && optCacheLoc.length() != 0) {
+                if (optCacheLoc.startsWith("\"")) {
+                    if (optCacheLoc.endsWith("\"")) {
+                        optCacheLoc = optCacheLoc.substring(1, optCacheLoc.length() - 1);
+                    }
+                    else {
+                        optCacheLoc = optCacheLoc.substring(1);
+                    }
+                }
+
+                File cacheDir = new File(optCacheLoc);
+                if (cacheDir.exists() && cacheDir.canWrite()) {
+                    preindexCacheLocation = optCacheLoc;
+                    if (!preindexCacheLocation.endsWith("/") &&
+                        !preindexCacheLocation.endsWith(File.separator)) {
+                        preindexCacheLocation += File.separator;
+                    }
+                }
+            }
+            return preindexCacheLocation;
+        }
+
+    /** Executor used to index archives in the background, or null. */
+    private ExecutorService archivePreloader;
+
+    /**
+     * Start indexing all archives on the platform class path and the user
+     * class path on background threads, so that the work overlaps with
+     * parsing.  This is enabled with "-XDpreloadArchives", and only applies
+     * when ZipFileIndex is in use.
+     *
+     * The background tasks only populate the shared ZipFileIndex cache:
+     * archives are still opened and cached by openArchive on the compiler
+     * thread, which then finds the index already built, and any errors are
+     * reported there exactly as before.
+     */
+    public void preloadArchives() {
+        if (!useZipFileIndex || archivePreloader != null
+                || options.get("preloadArchives") == null)
+            return;
+
+        final boolean usePreindexedCache = options.get("usezipindex") != null;
+        final String preindexCacheLocation = getPreindexCacheLocation();
+        final boolean writeIndex = options.get("writezipindexfiles") != null;
+
+        ListBuffer<File> files = new ListBuffer<File>();
+        for (Location location : List.of(PLATFORM_CLASS_PATH, CLASS_PATH)) {
+            Iterable<? extends File> path = getLocation(location);
+            if (path == null)
+                continue;
+            for (File f : path) {
+                if (!archives.containsKey(f) && fsInfo.isFile(f))
+                    files.append(f);
+            }
+        }
+        if (files.isEmpty())
+            return;
+
+        int nThreads = Math.min(files.size(),
+                                Runtime.getRuntime().availableProcessors());
+        archivePreloader = Executors.newFixedThreadPool(nThreads, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "javac archive preloader");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        for (File f : files) {
+            final File zipFileName = getSymbolFile(f);
+            final RelativeDirectory prefix = (zipFileName == f) ? null : symbolFilePrefix;
+            archivePreloader.execute(new Runnable() {
+                public void run() {
+                    try {
+                        ZipFileIndex.getZipFileIndex(zipFileName,
+                                prefix,
+                                usePreindexedCache,
+                                preindexCacheLocation,
+                                writeIndex);
+                    } catch (IOException e) {
+                        // ignore: reported when the archive is opened
+                    }
+                }
+            });
+        }
+        archivePreloader.shutdown();
+    }
 
     /** Flush any output resources.
      */
@@ -563,6 +667,11 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
      * Close the JavaFileManager, releasing resources.
      */
     public void close() {
+        packageIndexes.clear();
+        if (archivePreloader != null) {
+            archivePreloader.shutdownNow();
+            archivePreloader = null;
+        }
         for (Iterator<Archive> i = archives.values().iterator(); i.hasNext(); ) {
             Archive a = i.next();
             i.remove();
@@ -615,11 +724,32 @@ public class JavacFileManager extends BaseFileManager implements StandardJavaFil
         RelativeDirectory subdirectory = RelativeDirectory.forPackage(packageName);
         ListBuffer<JavaFileObject> results = new ListBuffer<JavaFileObject>();
 
+        if (usePackageIndex && !recurse && !location.isOutputLocation()) {
+            for (File directory : getPackageIndex(location, path).getContainers(subdirectory))
+                listContainer(directory, subdirectory, kinds, recurse, results);
+            return results.toList();
+        }
+
         for (File directory : path)
             listContainer(directory, subdirectory, kinds, recurse, results);
         return results.toList();
     }
 
+    /** Package indexes for the search locations, used by list when
+     *  "-XDpackageIndex" is given.  An index is rebuilt if the path
+     *  for its location is changed.
+     */
+    private Map<Location, PackageIndex> packageIndexes = new HashMap<Location, PackageIndex>();
+
+    private PackageIndex getPackageIndex(Location location, Iterable<? extends File> path) {
+        PackageIndex index = packageIndexes.get(location);
+        if (index == null || index.path != path) {
+            index = new PackageIndex(this, path);
+            packageIndexes.put(location, index);
+        }
+        return index;
+    }
+
     public String inferBinaryName(Location location, JavaFileObject file) {
         file.getClass(); // null check
         location.getClass(); // null check
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tools.javac.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.SourceVersion;
+
+import com.sun.tools.javac.file.JavacFileManager.Archive;
+import com.sun.tools.javac.file.RelativePath.RelativeDirectory;
+
+/** An index from package directories to the containers (directories and
+ *  archives) on a search path that hold them, so that listing a package
+ *  only needs to look at the containers that actually contain it.
+ *
+ *  Archives are indexed from their own directory data.  Directories are
+ *  scanned once, recording the modification time of each subdirectory;
+ *  if a package is not found in a directory, the time of its nearest
+ *  recorded ancestor is checked, and the directory is rescanned if it has
+ *  changed, so that packages created during compilation are still found.
+ *  Only subdirectories whose names can be package names are scanned, so
+ *  that resource and version control directories are skipped, and a link
+ *  back to a directory being scanned is not followed, so that cyclic links
+ *  terminate.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class PackageIndex {
+    /** The search path that was indexed. */
+    final Iterable<? extends File> path;
+
+    /** The package directories in each container, in search path order. */
+    private final Map<File, Map<RelativeDirectory, Long>> containers =
+        new LinkedHashMap<File, Map<RelativeDirectory, Long>>();
+
+    /** The containers which are archives, and so are never rescanned. */
+    private final Set<File> archives = new HashSet<File>();
+
+    /** The containers holding each package directory, in search path order. */
+    private Map<RelativeDirectory, List<File>> packages;
+
+    PackageIndex(JavacFileManager fileManager, Iterable<? extends File> path) {
+        this.path = path;
+        for (File container : path) {
+            Archive archive = fileManager.getArchive(container);
+            Map<RelativeDirectory, Long> dirs;
+            if (archive == null) {
+                dirs = scanDirectory(container);
+            } else {
+                dirs = new HashMap<RelativeDirectory, Long>();
+                for (RelativeDirectory d : archive.getSubdirectories())
+                    dirs.put(d, null);
+                archives.add(container);
+            }
+            containers.put(container, dirs);
+        }
+        buildPackages();
+    }
+
+    /**
+     * Get the containers on the search path which hold the given package
+     * directory, in search path order.
+     */
+    List<File> getContainers(RelativeDirectory subdirectory) {
+        boolean changed = false;
+        for (Map.Entry<File, Map<RelativeDirectory, Long>> e : containers.entrySet()) {
+            Map<RelativeDirectory, Long> dirs = e.getValue();
+            if (archives.contains(e.getKey()) || dirs.containsKey(subdirectory)
+                    || !isOutOfDate(e.getKey(), dirs, subdirectory))
+                continue;
+            e.setValue(scanDirectory(e.getKey()));
+            changed = true;
+        }
+        if (changed)
+            buildPackages();
+
+        List<File> result = packages.get(subdirectory);
+        return (result == null) ? Collections.<File>emptyList() : result;
+    }
+
+    /**
+     * Check whether a package directory that was not found when a directory
+     * was scanned might exist now, by checking the modification time of its
+     * nearest ancestor which was found.
+     */
+    private boolean isOutOfDate(File container,
+                                Map<RelativeDirectory, Long> dirs,
+                                RelativeDirectory subdirectory) {
+        RelativeDirectory d = subdirectory;
+        Long time;
+        do {
+            d = d.dirname();
+            time = dirs.get(d);
+        } while (time == null && d.path.length() > 0);
+
+        if (time == null)
+            return false;
+        return d.getFile(container).lastModified() != time.longValue();
+    }
+
+    private void buildPackages() {
+        Map<RelativeDirectory, List<File>> map = new HashMap<RelativeDirectory, List<File>>();
+        for (Map.Entry<File, Map<RelativeDirectory, Long>> e : containers.entrySet()) {
+            for (RelativeDirectory d : e.getValue().keySet()) {
+                List<File> list = map.get(d);
+                if (list == null) {
+                    list = new ArrayList<File>(1);
+                    map.put(d, list);
+                }
+                list.add(e.getKey());
+            }
+        }
+        packages = map;
+    }
+
+    private static Map<RelativeDirectory, Long> scanDirectory(File directory) {
+        Map<RelativeDirectory, Long> dirs = new HashMap<RelativeDirectory, Long>();
+        scanDirectory(directory, new RelativeDirectory(""), dirs, new HashSet<String>());
+        return dirs;
+    }
+
+    private static void scanDirectory(File directory,
+                                      RelativeDirectory subdirectory,
+                                      Map<RelativeDirectory, Long> dirs,
+                                      Set<String> ancestors) {
+        File d = subdirectory.getFile(directory);
+        String canonicalPath;
+        try {
+            canonicalPath = d.getCanonicalPath();
+        } catch (IOException e) {
+            return;
+        }
+        if (!ancestors.add(canonicalPath))
+            return; // a link back to a directory being scanned
+        dirs.put(subdirectory, d.lastModified());
+        File[] files = d.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                String name = f.getName();
+                if (isPackageName(name) && f.isDirectory())
+                    scanDirectory(directory, new RelativeDirectory(subdirectory, name), dirs, ancestors);
+            }
+        }
+        ancestors.remove(canonicalPath);
+    }
+
+    private static boolean isPackageName(String name) {
+        return SourceVersion.isIdentifier(name) && !SourceVersion.isKeyword(name);
+    }
+}
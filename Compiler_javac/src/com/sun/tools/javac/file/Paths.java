@@ -31,6 +31,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Collection;
@@ -88,6 +89,9 @@ public class Paths {
     /** Access to (possibly cached) file info */
     private FSInfo fsInfo;
 
+    /** Persistent cache of jar Class-Path attributes, or null if none */
+    private JarClassPathCache jarClassPathCache;
+
     protected Paths(Context context) {
         context.put(pathsKey, this);
         pathsForLocation = new HashMap<Location,Path>(16);
@@ -99,6 +103,9 @@ public class Paths {
         options = Options.instance(context);
         lint = Lint.instance(context);
         fsInfo = FSInfo.instance(context);
+        String cacheFile = options.get("jarclasspathcache");
+        jarClassPathCache = (cacheFile == null)
+            ? null : new JarClassPathCache(new File(cacheFile), fsInfo);
     }
 
     /** Whether to warn about non-existent path elements */
@@ -325,7 +332,10 @@ public class Paths {
         // filenames, but if we do, we should redo all path-related code.
         private void addJarClassPath(File jarFile, boolean warn) {
             try {
-                for (File f: fsInfo.getJarClassPath(jarFile)) {
+                List<File> jarClassPath = (jarClassPathCache == null)
+                    ? fsInfo.getJarClassPath(jarFile)
+                    : jarClassPathCache.getJarClassPath(jarFile);
+                for (File f: jarClassPath) {
                     addFile(f, warn);
                 }
             } catch (IOException e) {
@@ -386,10 +396,15 @@ public class Paths {
         // Default to current working directory.
         if (cp == null) cp = ".";
 
-        return new Path()
+        Path path = new Path()
             .expandJarClassPaths(true)        // Only search user jars for Class-Paths
             .emptyPathDefault(new File("."))  // Empty path elt ==> current directory
             .addFiles(cp);
+
+        if (jarClassPathCache != null)
+            jarClassPathCache.save();
+
+        return path;
     }
 
     private Path computeSourcePath() {
@@ -152,6 +152,13 @@ public class ZipFileIndexArchive implements Archive {
             return inputStream;
         }
 
+        /** Read the contents of the entry, without using or creating
+         *  the stream returned by openInputStream.
+         */
+        public byte[] readContents() throws IOException {
+            return zfIndex.read(entry);
+        }
+
         //@Override
         public OutputStream openOutputStream() throws IOException {
             throw new UnsupportedOperationException();
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tools.javac.jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaFileObject;
+
+import com.sun.tools.javac.code.Symbol.*;
+import com.sun.tools.javac.file.ZipFileIndexArchive.ZipFileIndexFileObject;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Options;
+
+/** Reads the contents of class files on background threads ahead of
+ *  the completion of their classes, so that the class reader does not
+ *  have to wait for the file system or for inflation of archive entries.
+ *
+ *  Only the bytes are read in advance; the class file is still decoded
+ *  into symbols by the class reader when the class is completed.  If a
+ *  class file cannot be read in advance, or is not read before the
+ *  limit on pending files is reached, the class reader reads it as
+ *  usual, so any errors are reported exactly as before.
+ *
+ *  Prefetching is enabled with "-XDprefetchClassFiles".
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class ClassFilePrefetcher {
+    protected static final Context.Key<ClassFilePrefetcher> classFilePrefetcherKey =
+        new Context.Key<ClassFilePrefetcher>();
+
+    /** The maximum number of class files read in advance and not yet
+     *  used by the class reader.
+     */
+    private static final int MAX_PENDING = 256;
+
+    /** Get the ClassFilePrefetcher instance for this context, or null if
+     *  prefetching has not been enabled.
+     */
+    public static ClassFilePrefetcher instance(Context context) {
+        ClassFilePrefetcher instance = context.get(classFilePrefetcherKey);
+        if (instance == null && Options.instance(context).get("prefetchClassFiles") != null)
+            instance = new ClassFilePrefetcher(context);
+        return instance;
+    }
+
+    /** The class files being read, or read and not yet used.  This map
+     *  is only used by the compiler thread.
+     */
+    private final Map<JavaFileObject, Future<byte[]>> pending =
+        new HashMap<JavaFileObject, Future<byte[]>>();
+
+    private ThreadPoolExecutor executor;
+
+    protected ClassFilePrefetcher(Context context) {
+        context.put(classFilePrefetcherKey, this);
+    }
+
+    /** Start reading the class file of a class, if it has not yet been
+     *  completed and is to be completed from a class file.
+     */
+    public void prefetch(ClassSymbol c) {
+        final JavaFileObject classfile = c.classfile;
+        if (c.completer == null
+                || classfile == null
+                || classfile.getKind() != JavaFileObject.Kind.CLASS
+                || pending.size() >= MAX_PENDING
+                || pending.containsKey(classfile))
+            return;
+        pending.put(classfile, executor().submit(new Callable<byte[]>() {
+            public byte[] call() throws IOException {
+                return read(classfile);
+            }
+        }));
+    }
+
+    /** Read the contents of a class file, leaving any stream cached by
+     *  the file object to the class reader.
+     */
+    private static byte[] read(JavaFileObject classfile) throws IOException {
+        if (classfile instanceof ZipFileIndexFileObject) {
+            // openInputStream returns the same stream on every call
+            return ((ZipFileIndexFileObject) classfile).readContents();
+        }
+        InputStream in = classfile.openInputStream();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            byte[] b = new byte[8192];
+            int n;
+            while ((n = in.read(b)) != -1)
+                out.write(b, 0, n);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /** Get the contents of a class file read in advance, waiting for
+     *  the read to finish if necessary, or null if the file was not read
+     *  in advance or could not be read.
+     */
+    byte[] take(JavaFileObject classfile) {
+        Future<byte[]> f = pending.remove(classfile);
+        if (f == null)
+            return null;
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            // the class reader will read the file again and report the error
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private ThreadPoolExecutor executor() {
+        if (executor == null) {
+            int nThreads = Math.max(1, Math.min(4,
+                    Runtime.getRuntime().availableProcessors() - 1));
+            executor = new ThreadPoolExecutor(nThreads, nThreads,
+                    1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "javac class file prefetcher");
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+            // let idle threads exit, as there is no end of compilation hook
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+}
@@ -256,6 +256,9 @@ public class ClassReader extends ClassFile implements Completer {
             : null;
 
         typevars = new Scope(syms.noSymbol);
+
+        trace = CompletionTrace.instance(context);
+        prefetcher = ClassFilePrefetcher.instance(context);
     }
 
     /** Add member to class unless it is synthetic.
@@ -1870,10 +1873,41 @@ public class ClassReader extends ClassFile implements Completer {
 
     private boolean suppressFlush = false;
 
+    /** The number of symbols completed by this reader.
+     */
+    private int completionCount = 0;
+
+    public int getCompletionCount() {
+        return completionCount;
+    }
+
+    /** The trace of completions, or null if they are not being traced.
+     */
+    private final CompletionTrace trace;
+
+    /** The reader of class files ahead of completion, or null if class
+     *  files are not read in advance.
+     */
+    private final ClassFilePrefetcher prefetcher;
+
     /** Completion for classes to be loaded. Before a class is loaded
      *  we make sure its enclosing class (if any) is loaded.
      */
     public void complete(Symbol sym) throws CompletionFailure {
+        if (trace != null) {
+            trace.started(sym);
+            try {
+                completeSymbol(sym);
+            } finally {
+                trace.finished();
+            }
+        } else {
+            completeSymbol(sym);
+        }
+    }
+
+    private void completeSymbol(Symbol sym) throws CompletionFailure {
+        completionCount++;
         if (sym.kind == TYP) {
             ClassSymbol c = (ClassSymbol)sym;
             c.members_field = new Scope.ErrorScope(c); // make sure it's always defined
@@ -1952,8 +1986,16 @@ public class ClassReader extends ClassFile implements Completer {
                     filling = true;
                     try {
                         bp = 0;
-                        buf = readInputStream(buf, classfile.openInputStream());
+                        byte[] prefetched = (prefetcher != null) ? prefetcher.take(classfile) : null;
+                        if (prefetched != null) {
+                            buf = ensureCapacity(buf, prefetched.length);
+                            System.arraycopy(prefetched, 0, buf, 0, prefetched.length);
+                        } else {
+                            buf = readInputStream(buf, classfile.openInputStream());
+                        }
                         readClassFile(c);
+                        if (trace != null)
+                            trace.read(bp);
                         if (!missingTypeVariables.isEmpty() && !foundTypeVariables.isEmpty()) {
                             List<Type> missing = missingTypeVariables;
                             List<Type> found = foundTypeVariables;
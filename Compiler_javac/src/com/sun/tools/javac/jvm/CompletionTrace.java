@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tools.javac.jvm;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Options;
+
+import static com.sun.tools.javac.code.Kinds.*;
+
+/** A record of the symbols completed by the class reader, for finding
+ *  out why a compilation reads the classes that it does.
+ *
+ *  Each completion is recorded with the compiler phase, class and
+ *  source file being processed when it was triggered, the number of
+ *  class file bytes read and the time spent.  A completion triggered
+ *  while another one is in progress, such as that of an enclosing
+ *  class, is recorded as part of a chain under the completion that
+ *  triggered it.
+ *
+ *  The trace is enabled with "-XDcompletionTrace", or with
+ *  "-XDcompletionTrace=<n>" to set the number of entries in each part of
+ *  the report printed at the end of the compilation.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class CompletionTrace {
+    protected static final Context.Key<CompletionTrace> completionTraceKey =
+        new Context.Key<CompletionTrace>();
+
+    private static final int DEFAULT_REPORT_SIZE = 20;
+
+    /** Get the CompletionTrace instance for this context, or null if
+     *  tracing has not been enabled.
+     */
+    public static CompletionTrace instance(Context context) {
+        CompletionTrace instance = context.get(completionTraceKey);
+        if (instance == null && Options.instance(context).get("completionTrace") != null)
+            instance = new CompletionTrace(context);
+        return instance;
+    }
+
+    /** Make the trace of one context the trace of another, so that a
+     *  single report covers all rounds of annotation processing.
+     */
+    public static void shareWith(Context from, Context to) {
+        CompletionTrace instance = from.get(completionTraceKey);
+        if (instance != null)
+            to.put(completionTraceKey, instance);
+    }
+
+    private final int reportSize;
+
+    /** The phase and class being processed by the compiler. */
+    private Trigger trigger = new Trigger("init", null, null);
+
+    /** The completion in progress, if any. */
+    private Completion current;
+
+    /** All completions, in the order in which they were started. */
+    private final java.util.List<Completion> completions = new ArrayList<Completion>();
+
+    protected CompletionTrace(Context context) {
+        context.put(completionTraceKey, this);
+        String size = Options.instance(context).get("completionTrace");
+        int n;
+        try {
+            n = Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            n = DEFAULT_REPORT_SIZE;
+        }
+        reportSize = n;
+    }
+
+    /** Note that the compiler has started a phase for a class, returning
+     *  the previous phase, which should be restored with endPhase.
+     */
+    public Object startPhase(String phase, Symbol site, JavaFileObject sourcefile) {
+        Trigger prev = trigger;
+        trigger = new Trigger(phase, site, sourcefile);
+        return prev;
+    }
+
+    public void endPhase(Object prev) {
+        trigger = (Trigger)prev;
+    }
+
+    /** Note that the class reader has started to complete a symbol. */
+    void started(Symbol sym) {
+        Completion c = new Completion(sym, current, trigger);
+        completions.add(c);
+        current = c;
+        c.start = System.nanoTime();
+    }
+
+    /** Note the number of bytes read for the completion in progress. */
+    void read(int bytes) {
+        current.bytes += bytes;
+    }
+
+    /** Note that the completion in progress has finished. */
+    void finished() {
+        Completion c = current;
+        c.time = System.nanoTime() - c.start;
+        c.selfTime += c.time;
+        current = c.parent;
+        if (current != null)
+            current.selfTime -= c.time;
+    }
+
+    /** Print the report of the completions recorded. */
+    public void printReport(PrintWriter out) {
+        Map<String, Total> packages = new HashMap<String, Total>();
+        Map<Trigger, Total> triggers = new HashMap<Trigger, Total>();
+        long bytes = 0;
+        long time = 0;
+        java.util.List<Completion> classes = new ArrayList<Completion>();
+        for (Completion c : completions) {
+            if (c.kind == TYP) {
+                classes.add(c);
+                String pkg = c.sym.packge().fullname.toString();
+                Total t = packages.get(pkg);
+                if (t == null)
+                    packages.put(pkg, t = new Total(pkg.length() == 0 ? "<unnamed>" : pkg));
+                t.count++;
+                t.bytes += c.bytes;
+                t.time += c.selfTime;
+            }
+            bytes += c.bytes;
+            Trigger trigger = c.root().trigger;
+            Total t = triggers.get(trigger);
+            if (t == null)
+                triggers.put(trigger, t = new Total(trigger.toString()));
+            t.count++;
+            t.bytes += c.bytes;
+            if (c.parent == null) {
+                t.time += c.time;
+                time += c.time;
+            }
+        }
+
+        out.println("Completion trace : " + classes.size() + " classes, "
+                    + (completions.size() - classes.size()) + " packages, "
+                    + bytes + " bytes, " + millis(time) + " ms");
+
+        out.println("  Most expensive classes:");
+        Collections.sort(classes, new Comparator<Completion>() {
+            public int compare(Completion c1, Completion c2) {
+                return Long.signum(c2.selfTime - c1.selfTime);
+            }
+        });
+        for (Completion c : first(classes)) {
+            out.println("    " + millis(c.selfTime) + " ms, " + c.bytes + " bytes : "
+                        + c.sym.flatName() + " (" + c.root().trigger + ")");
+        }
+
+        out.println("  Most expensive packages:");
+        for (Total t : sort(packages.values())) {
+            out.println("    " + millis(t.time) + " ms, " + t.count + " classes, "
+                        + t.bytes + " bytes : " + t.name);
+        }
+
+        out.println("  Most completions triggered:");
+        for (Total t : sort(triggers.values())) {
+            out.println("    " + millis(t.time) + " ms, " + t.count + " completions, "
+                        + t.bytes + " bytes : " + t.name);
+        }
+
+        out.println("  Longest completion chains:");
+        java.util.List<Completion> byDepth = new ArrayList<Completion>();
+        for (Completion c : completions) {
+            if (c.depth > 0)
+                byDepth.add(c);
+        }
+        Collections.sort(byDepth, new Comparator<Completion>() {
+            public int compare(Completion c1, Completion c2) {
+                return c2.depth - c1.depth;
+            }
+        });
+        for (Completion c : first(byDepth)) {
+            StringBuilder sb = new StringBuilder();
+            for (Completion p = c; p != null; p = p.parent)
+                sb.insert(0, " -> " + p.sym.flatName());
+            out.println("    " + c.root().trigger + sb);
+        }
+        out.flush();
+    }
+    // where
+        private <T> java.util.List<T> first(java.util.List<T> list) {
+            return list.subList(0, Math.min(reportSize, list.size()));
+        }
+
+        private java.util.List<Total> sort(Collection<Total> totals) {
+            java.util.List<Total> list = new ArrayList<Total>(totals);
+            Collections.sort(list, new Comparator<Total>() {
+                public int compare(Total t1, Total t2) {
+                    return Long.signum(t2.time - t1.time);
+                }
+            });
+            return first(list);
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.1f", nanos / 1e6);
+        }
+
+    /** The phase, class and source file being processed when a
+     *  completion was triggered.
+     */
+    private static class Trigger {
+        final String phase;
+        final Symbol site;
+        final JavaFileObject sourcefile;
+
+        Trigger(String phase, Symbol site, JavaFileObject sourcefile) {
+            this.phase = phase;
+            this.site = site;
+            this.sourcefile = sourcefile;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Trigger))
+                return false;
+            Trigger t = (Trigger)other;
+            return phase.equals(t.phase) && site == t.site && sourcefile == t.sourcefile;
+        }
+
+        @Override
+        public int hashCode() {
+            return phase.hashCode()
+                + (site == null ? 0 : site.hashCode())
+                + (sourcefile == null ? 0 : sourcefile.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(phase);
+            if (site != null)
+                sb.append(' ').append(site);
+            if (sourcefile != null)
+                sb.append(" [").append(sourcefile.getName()).append(']');
+            return sb.toString();
+        }
+    }
+
+    private static class Completion {
+        final Symbol sym;
+        final int kind;
+        final Completion parent;
+        final Trigger trigger;
+        final int depth;
+        long start;
+        long time;
+        long selfTime;
+        int bytes;
+
+        Completion(Symbol sym, Completion parent, Trigger trigger) {
+            this.sym = sym;
+            this.kind = sym.kind;
+            this.parent = parent;
+            this.trigger = trigger;
+            this.depth = (parent == null) ? 0 : parent.depth + 1;
+        }
+
+        Completion root() {
+            Completion c = this;
+            while (c.parent != null)
+                c = c.parent;
+            return c;
+        }
+    }
+
+    private static class Total {
+        final String name;
+        int count;
+        long bytes;
+        long time;
+
+        Total(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -308,6 +308,11 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
 
     protected Context context;
 
+    /** The trace of symbol completions, or null if they are not being
+     *  traced.
+     */
+    protected CompletionTrace completionTrace;
+
     /** Construct a new compiler using a shared context.
      */
     public JavaCompiler(final Context context) {
@@ -321,6 +326,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
         names = Name.Table.instance(context);
         log = Log.instance(context);
         reader = ClassReader.instance(context);
+        completionTrace = CompletionTrace.instance(context);
         make = TreeMaker.instance(context);
         writer = ClassWriter.instance(context);
         enter = Enter.instance(context);
@@ -792,6 +798,10 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
         try {
             initProcessAnnotations(processors);
 
+            // Index class path archives in the background while parsing, if requested
+            if (fileManager instanceof JavacFileManager)
+                ((JavacFileManager) fileManager).preloadArchives();
+
             // These method calls must be chained to avoid memory leaks
             delegateCompiler =
                 processAnnotations(
@@ -855,6 +865,9 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
             printVerbose("total", Long.toString(elapsed_msec));
         }
 
+        if (completionTrace != null)
+            completionTrace.printReport(log.noticeWriter);
+
         reportDeferredDiagnostics();
 
         if (!log.hasDiagnosticListener()) {
@@ -893,7 +906,12 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
             }
         }
 
-        enter.main(roots);
+        Object prevPhase = startPhase("enter", null);
+        try {
+            enter.main(roots);
+        } finally {
+            endPhase(prevPhase);
+        }
 
         if (taskListener != null) {
             for (JCCompilationUnit unit: roots) {
@@ -1057,6 +1075,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
                         return this;
                 }
             }
+            Object prevPhase = startPhase("process", null);
             try {
                 JavaCompiler c = procEnvImpl.doProcessing(context, roots, classSymbols, pckSymbols);
                 if (c != this)
@@ -1064,6 +1083,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
                 return c;
             } finally {
                 procEnvImpl.close();
+                endPhase(prevPhase);
             }
         } catch (CompletionFailure ex) {
             log.error("cant.access", ex.sym, ex.errmsg);
@@ -1118,12 +1138,14 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
                                   env.enclClass.sym.sourcefile != null ?
                                   env.enclClass.sym.sourcefile :
                                   env.toplevel.sourcefile);
+        Object prevPhase = startPhase("attr", env);
         try {
             attr.attribClass(env.tree.pos(), env.enclClass.sym);
             compileStates.put(env, CompileState.ATTR);
         }
         finally {
             log.useSource(prev);
+            endPhase(prevPhase);
         }
 
         return env;
@@ -1171,6 +1193,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
                                                 env.enclClass.sym.sourcefile != null ?
                                                 env.enclClass.sym.sourcefile :
                                                 env.toplevel.sourcefile);
+            Object prevPhase = startPhase("flow", env);
             try {
                 make.at(Position.FIRSTPOS);
                 TreeMaker localMake = make.forToplevel(env.toplevel);
@@ -1184,6 +1207,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
             }
             finally {
                 log.useSource(prev);
+                endPhase(prevPhase);
             }
         }
         finally {
@@ -1261,6 +1285,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
         JavaFileObject prev = log.useSource(env.enclClass.sym.sourcefile != null ?
                                   env.enclClass.sym.sourcefile :
                                   env.toplevel.sourcefile);
+        Object prevPhase = startPhase("desugar", env);
         try {
             //save tree prior to rewriting
             JCTree untranslated = env.tree;
@@ -1327,6 +1352,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
         }
         finally {
             log.useSource(prev);
+            endPhase(prevPhase);
         }
 
     }
@@ -1364,6 +1390,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
             JavaFileObject prev = log.useSource(env.enclClass.sym.sourcefile != null ?
                                       env.enclClass.sym.sourcefile :
                                       env.toplevel.sourcefile);
+            Object prevPhase = startPhase("generate", env);
             try {
                 JavaFileObject file;
                 if (usePrintSource)
@@ -1378,6 +1405,7 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
                 return;
             } finally {
                 log.useSource(prev);
+                endPhase(prevPhase);
             }
 
             if (taskListener != null) {
@@ -1506,6 +1534,22 @@ public class JavaCompiler implements ClassReader.SourceCompleter {
         }
     }
 
+    /** Note the phase and class being processed, for -XDcompletionTrace,
+     *  returning the previous ones to be restored with endPhase.
+     */
+    private Object startPhase(String phase, Env<AttrContext> env) {
+        if (completionTrace == null)
+            return null;
+        if (env == null)
+            return completionTrace.startPhase(phase, null, null);
+        return completionTrace.startPhase(phase, env.enclClass.sym, env.toplevel.sourcefile);
+    }
+
+    private void endPhase(Object prevPhase) {
+        if (completionTrace != null)
+            completionTrace.endPhase(prevPhase);
+    }
+
     protected void printNote(String lines) {
         Log.printLines(log.noticeWriter, lines);
     }
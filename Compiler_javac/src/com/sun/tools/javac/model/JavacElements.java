@@ -27,6 +27,8 @@ package com.sun.tools.javac.model;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Inherited;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
@@ -100,6 +102,48 @@ public class JavacElements implements Elements {
         types = Types.instance(context);
         enter = Enter.instance(context);
         reader = ClassReader.instance(context);
+        if (lookupCacheEnabled) {
+            typeElementCache.clear();
+            packageElementCache.clear();
+        }
+    }
+
+    /**
+     * Whether to cache the results of getTypeElement and getPackageElement.
+     */
+    private boolean lookupCacheEnabled = false;
+
+    /**
+     * Results of getTypeElement and getPackageElement since the last call
+     * of setContext, including null results for names that were not found.
+     */
+    private final Map<String, ClassSymbol> typeElementCache =
+            new HashMap<String, ClassSymbol>();
+    private final Map<String, PackageSymbol> packageElementCache =
+            new HashMap<String, PackageSymbol>();
+
+    /** Statistics for getTypeElement and getPackageElement. */
+    private int lookupCount = 0;
+    private int lookupCacheHits = 0;
+
+    /**
+     * Cache the results of getTypeElement and getPackageElement, including
+     * names which are not found, until the next call of setContext.  This
+     * is only valid when no types or packages can be added between calls
+     * of setContext, as is the case for a round of annotation processing.
+     */
+    public void enableLookupCache() {
+        lookupCacheEnabled = true;
+    }
+
+    /** The number of calls of getTypeElement and getPackageElement. */
+    public int getLookupCount() {
+        return lookupCount;
+    }
+
+    /** The number of lookups which were answered from the cache. */
+    public int getLookupCacheHits() {
+        return lookupCacheHits;
     }
 
 
@@ -143,16 +187,63 @@ public class JavacElements implements Elements {
         String strName = name.toString();
         if (strName.equals(""))
             return syms.unnamedPackage;
-        return SourceVersion.isName(strName)
+        lookupCount++;
+        if (lookupCacheEnabled && packageElementCache.containsKey(strName)) {
+            lookupCacheHits++;
+            return packageElementCache.get(strName);
+        }
+        PackageSymbol result = SourceVersion.isName(strName)
             ? nameToSymbol(strName, PackageSymbol.class)
             : null;
+        if (lookupCacheEnabled)
+            packageElementCache.put(strName, result);
+        return result;
     }
 
     public ClassSymbol getTypeElement(CharSequence name) {
         String strName = name.toString();
-        return SourceVersion.isName(strName)
+        lookupCount++;
+        if (lookupCacheEnabled && typeElementCache.containsKey(strName)) {
+            lookupCacheHits++;
+            return typeElementCache.get(strName);
+        }
+        ClassSymbol result = SourceVersion.isName(strName)
             ? nameToSymbol(strName, ClassSymbol.class)
             : null;
+        if (lookupCacheEnabled)
+            typeElementCache.put(strName, result);
+        return result;
+    }
+
+    /**
+     * Returns the type elements for a number of canonical names, in the
+     * order given; names which are not found are mapped to null.
+     * Completion is not thread-safe, so the names are resolved in turn,
+     * but each is only resolved once per round if the lookup cache is
+     * enabled.
+     */
+    public Map<String, ClassSymbol> getTypeElements(Iterable<? extends CharSequence> names) {
+        Map<String, ClassSymbol> result = new LinkedHashMap<String, ClassSymbol>();
+        for (CharSequence name : names) {
+            String strName = name.toString();
+            if (!result.containsKey(strName))
+                result.put(strName, getTypeElement(strName));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the package elements for a number of canonical names, in
+     * the order given; names which are not found are mapped to null.
+     */
+    public Map<String, PackageSymbol> getPackageElements(Iterable<? extends CharSequence> names) {
+        Map<String, PackageSymbol> result = new LinkedHashMap<String, PackageSymbol>();
+        for (CharSequence name : names) {
+            String strName = name.toString();
+            if (!result.containsKey(strName))
+                result.put(strName, getPackageElement(strName));
+        }
+        return result;
     }
 
     /**
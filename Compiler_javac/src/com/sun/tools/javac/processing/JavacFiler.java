@@ -33,8 +33,11 @@ import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Element;
 import java.util.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -45,8 +48,17 @@ import java.io.FilterWriter;
 import java.io.PrintWriter;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.CharBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.tools.FileObject;
 
+import com.sun.tools.javac.file.JavacFileManager;
+
 import javax.tools.*;
 import static java.util.Collections.*;
 
@@ -124,6 +136,8 @@ public class JavacFiler implements Filer, Closeable {
             if (opened)
                 throw new IOException(ALREADY_OPENED);
             opened = true;
+            if (outputWriter != null)
+                return new BufferedFilerOutputStream(name, fileObject);
             return new FilerOutputStream(name, fileObject);
         }
 
@@ -132,6 +146,8 @@ public class JavacFiler implements Filer, Closeable {
             if (opened)
                 throw new IOException(ALREADY_OPENED);
             opened = true;
+            if (outputWriter != null)
+                return new BufferedFilerWriter(name, fileObject);
             return new FilerWriter(name, fileObject);
         }
 
@@ -247,11 +263,20 @@ public class JavacFiler implements Filer, Closeable {
          * binary file
          */
         FilerOutputStream(String typeName, FileObject fileObject) throws IOException {
-            super(fileObject.openOutputStream());
+            this(typeName, fileObject, fileObject.openOutputStream());
+        }
+
+        FilerOutputStream(String typeName, FileObject fileObject, OutputStream out) {
+            super(out);
             this.typeName = typeName;
             this.fileObject = fileObject;
         }
 
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
         public synchronized void close() throws IOException {
             if (!closed) {
                 closed = true;
@@ -282,7 +307,11 @@ public class JavacFiler implements Filer, Closeable {
          * text file
          */
         FilerWriter(String typeName, FileObject fileObject) throws IOException {
-            super(fileObject.openWriter());
+            this(typeName, fileObject, fileObject.openWriter());
+        }
+
+        FilerWriter(String typeName, FileObject fileObject, Writer out) {
+            super(out);
             this.typeName = typeName;
             this.fileObject = fileObject;
         }
@@ -301,11 +330,79 @@ public class JavacFiler implements Filer, Closeable {
         }
     }
 
+    /**
+     * Accumulate the content of a file in memory, and queue it to be
+     * written by the background writer when closed.
+     */
+    private class BufferedFilerOutputStream extends FilerOutputStream {
+        BufferedFilerOutputStream(String typeName, FileObject fileObject) {
+            super(typeName, fileObject, new ByteArrayOutputStream());
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (!closed) {
+                super.close();
+                queueWrite(typeName, fileObject, ((ByteArrayOutputStream) out).toByteArray());
+            }
+        }
+    }
+
+    /**
+     * Accumulate the content of a file in memory, and queue it to be
+     * written by the background writer when closed.
+     */
+    private class BufferedFilerWriter extends FilerWriter {
+        BufferedFilerWriter(String typeName, FileObject fileObject) {
+            super(typeName, fileObject, new CharArrayWriter());
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (!closed) {
+                super.close();
+                String encodingName = ((JavacFileManager) fileManager).getEncodingName();
+                queueWrite(typeName, fileObject, out.toString().getBytes(encodingName));
+            }
+        }
+    }
+
     JavaFileManager fileManager;
     Log log;
     Context context;
     boolean lastRound;
 
+    /**
+     * Background writer for generated files, if "-XDasyncFilerOutput"
+     * was given; otherwise null, and files are written as they are
+     * generated.  Only supported with a JavacFileManager.
+     */
+    private ThreadPoolExecutor outputWriter;
+
+    /**
+     * Generated files not yet known to be written.
+     */
+    private final java.util.List<Future<?>> pendingWrites = new ArrayList<Future<?>>();
+
+    /**
+     * Content of the source files generated in this round, to be given
+     * to the file manager for parsing in the next round.
+     */
+    private final Map<JavaFileObject, String> generatedSourceContent =
+        synchronizedMap(new LinkedHashMap<JavaFileObject, String>());
+
+    /**
+     * Directories known to exist, so that each is only checked once
+     * by the background writer.
+     */
+    private final Set<File> outputDirectories = synchronizedSet(new HashSet<File>());
+
+    /**
+     * Errors from writing generated files in the background.
+     */
+    private final java.util.List<Pair<FileObject, IOException>> writeErrors =
+        synchronizedList(new ArrayList<Pair<FileObject, IOException>>());
+
     private final boolean lint;
 
     /**
@@ -370,6 +467,115 @@ public class JavacFiler implements Filer, Closeable {
         aggregateGeneratedClassNames  = new LinkedHashSet<String>();
 
         lint = (Options.instance(context)).lint("processing");
+
+        if (Options.instance(context).get("asyncFilerOutput") != null
+                && fileManager instanceof JavacFileManager) {
+            outputWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(MAX_QUEUED_WRITES),
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "javac filer writer");
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    },
+                    // when too much output is pending, write on the processing thread
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    /** The number of generated files that may be waiting to be written. */
+    private static final int MAX_QUEUED_WRITES = 256;
+
+    private void queueWrite(String typeName, final FileObject fileObject, final byte[] content)
+            throws IOException {
+        if (typeName != null && fileObject instanceof JavaFileObject
+                && ((JavaFileObject) fileObject).getKind() == JavaFileObject.Kind.SOURCE) {
+            // decode the bytes, so the parser sees just what is written to disk
+            String encodingName = ((JavacFileManager) fileManager).getEncodingName();
+            generatedSourceContent.put((JavaFileObject) fileObject,
+                                       new String(content, encodingName));
+        }
+        Future<?> f = outputWriter.submit(new Runnable() {
+            public void run() {
+                try {
+                    writeFile(fileObject, content);
+                } catch (IOException e) {
+                    writeErrors.add(new Pair<FileObject, IOException>(fileObject, e));
+                }
+            }
+        });
+        synchronized (pendingWrites) {
+            pendingWrites.add(f);
+        }
+    }
+
+    private void writeFile(FileObject fileObject, byte[] content) throws IOException {
+        URI uri = fileObject.toUri();
+        OutputStream out;
+        if ("file".equals(uri.getScheme())) {
+            File file = new File(uri);
+            File parent = file.getParentFile();
+            if (parent != null && !outputDirectories.contains(parent)) {
+                if (!parent.mkdirs() && !parent.isDirectory())
+                    throw new IOException("could not create parent directories");
+                outputDirectories.add(parent);
+            }
+            out = new FileOutputStream(file);
+        } else {
+            out = fileObject.openOutputStream();
+        }
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Wait until all generated files have been written, reporting any
+     * errors, and give the content of the source files generated in this
+     * round to the file manager, so that they need not be read back from
+     * disk when they are parsed.  Must be called after the compiler for
+     * the round has been closed, since that flushes the file manager.
+     */
+    public void flushGeneratedFiles() {
+        if (outputWriter == null)
+            return;
+
+        java.util.List<Future<?>> writes;
+        synchronized (pendingWrites) {
+            writes = new ArrayList<Future<?>>(pendingWrites);
+            pendingWrites.clear();
+        }
+        boolean interrupted = false;
+        for (Future<?> f : writes) {
+            while (true) {
+                try {
+                    f.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new AssertionError(e.getCause());
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        synchronized (writeErrors) {
+            for (Pair<FileObject, IOException> e : writeErrors)
+                log.error("class.cant.write", e.fst.getName(), e.snd.getLocalizedMessage());
+            writeErrors.clear();
+        }
+
+        JavacFileManager fm = (JavacFileManager) fileManager;
+        synchronized (generatedSourceContent) {
+            for (Map.Entry<JavaFileObject, String> e : generatedSourceContent.entrySet())
+                fm.cache(e.getKey(), CharBuffer.wrap(e.getValue()));
+            generatedSourceContent.clear();
+        }
     }
 
     public JavaFileObject createSourceFile(CharSequence name,
@@ -542,6 +748,11 @@ public class JavacFiler implements Filer, Closeable {
     }
 
     public void close() {
+        flushGeneratedFiles();
+        if (outputWriter != null) {
+            outputWriter.shutdown();
+            outputWriter = null;
+        }
         clearRoundState();
         // Cross-round state
         fileObjectHistory.clear();
@@ -88,6 +88,14 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
     private final boolean lint;
     private final boolean procOnly;
     private final boolean fatalErrors;
+    private final boolean processorStats;
+
+    /**
+     * Number of symbol completions and element lookups done while
+     * running each processor, by processor class name, for
+     * -XDprocessorStats.
+     */
+    private final Map<String, int[]> processorCompletions = new LinkedHashMap<String, int[]>();
 
     private final JavacFiler filer;
     private final JavacMessager messager;
@@ -144,6 +152,7 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
         procOnly = options.get("-proc:only") != null ||
             options.get("-Xprint") != null;
         fatalErrors = options.get("fatalEnterError") != null;
+        processorStats = options.get("processorStats") != null;
         platformAnnotations = initPlatformAnnotations();
 
         // Initialize services before any processors are initialzied
@@ -151,6 +160,7 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
         filer = new JavacFiler(context);
         messager = new JavacMessager(context, this);
         elementUtils = new JavacElements(context);
+        elementUtils.enableLookupCache();
         typeUtils = new JavacTypes(context);
         processorOptions = initProcessorOptions(context);
         unmatchedProcessorOptions = initUnmatchedProcessorOptions();
@@ -731,6 +741,9 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
     private boolean callProcessor(Processor proc,
                                          Set<? extends TypeElement> tes,
                                          RoundEnvironment renv) {
+        ClassReader reader = processorStats ? ClassReader.instance(context) : null;
+        int completions = processorStats ? reader.getCompletionCount() : 0;
+        int lookups = elementUtils.getLookupCount();
         try {
             return proc.process(tes, renv);
         } catch (CompletionFailure ex) {
@@ -740,6 +753,38 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
             return false;
         } catch (Throwable t) {
             throw new AnnotationProcessingError(t);
+        } finally {
+            if (processorStats) {
+                String name = proc.getClass().getName();
+                int[] counts = processorCompletions.get(name);
+                if (counts == null) {
+                    counts = new int[2];
+                    processorCompletions.put(name, counts);
+                }
+                counts[0] += reader.getCompletionCount() - completions;
+                counts[1] += elementUtils.getLookupCount() - lookups;
+            }
+        }
+    }
+
+    /**
+     * Print the completions and element lookups done by each processor,
+     * most completions first, for -XDprocessorStats.
+     */
+    private void printProcessorStats(PrintWriter xout) {
+        java.util.List<Map.Entry<String, int[]>> entries =
+            new ArrayList<Map.Entry<String, int[]>>(processorCompletions.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, int[]>>() {
+            public int compare(Map.Entry<String, int[]> e1, Map.Entry<String, int[]> e2) {
+                return e2.getValue()[0] - e1.getValue()[0];
+            }
+        });
+        xout.println("Processor completions : " + processorCompletions.size() + " processors, "
+                     + elementUtils.getLookupCount() + " element lookups, "
+                     + elementUtils.getLookupCacheHits() + " cache hits");
+        for (Map.Entry<String, int[]> e : entries) {
+            xout.println("    " + e.getValue()[0] + " completions, "
+                         + e.getValue()[1] + " lookups : " + e.getKey());
         }
     }
 
@@ -897,6 +942,9 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
        errorStatus = errorStatus || messager.errorRaised();
 
 
+        if (processorStats)
+            printProcessorStats(xout);
+
         // Free resources
         this.close();
 
@@ -930,6 +978,7 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
 
     private List<JCCompilationUnit> sourcesToParsedFiles(JavaCompiler compiler)
         throws IOException {
+        filer.flushGeneratedFiles();
         List<JavaFileObject> fileObjects = List.nil();
         for (JavaFileObject jfo : filer.getGeneratedSourceFileObjects() ) {
             fileObjects = fileObjects.prepend(jfo);
@@ -1097,6 +1146,7 @@ public class JavacProcessingEnvironment implements ProcessingEnvironment, Closea
         Options options = Options.instance(context);
         assert options != null;
         next.put(Options.optionsKey, options);
+        CompletionTrace.shareWith(context, next);
 
         PrintWriter out = context.get(Log.outKey);
         assert out != null;
@@ -538,6 +538,7 @@ public class TreeMaker implements Factory {
      *  in given list of variable declarations.
      */
     public List<JCExpression> Idents(List<JCVariableDecl> params) {
+        if (params.isEmpty()) return List.nil();
         ListBuffer<JCExpression> ids = new ListBuffer<JCExpression>();
         for (List<JCVariableDecl> l = params; l.nonEmpty(); l = l.tail)
             ids.append(Ident(l.head));
@@ -644,6 +645,7 @@ public class TreeMaker implements Factory {
     /** Create a list of trees representing given list of types.
      */
     public List<JCExpression> Types(List<Type> ts) {
+        if (ts.isEmpty()) return List.nil();
         ListBuffer<JCExpression> types = new ListBuffer<JCExpression>();
         for (List<Type> l = ts; l.nonEmpty(); l = l.tail)
             types.append(Type(l.head));
@@ -666,7 +668,7 @@ public class TreeMaker implements Factory {
     /** Create annotation trees from annotations.
      */
     public List<JCAnnotation> Annotations(List<Attribute.Compound> attributes) {
-        if (attributes == null) return List.nil();
+        if (attributes == null || attributes.isEmpty()) return List.nil();
         ListBuffer<JCAnnotation> result = new ListBuffer<JCAnnotation>();
         for (List<Attribute.Compound> i = attributes; i.nonEmpty(); i=i.tail) {
             Attribute a = i.head;
@@ -788,6 +790,7 @@ public class TreeMaker implements Factory {
     /** Create a list of type parameter trees from a list of type variables.
      */
     public List<JCTypeParameter> TypeParams(List<Type> typarams) {
+        if (typarams.isEmpty()) return List.nil();
         ListBuffer<JCTypeParameter> tparams = new ListBuffer<JCTypeParameter>();
         int i = 0;
         for (List<Type> l = typarams; l.nonEmpty(); l = l.tail)
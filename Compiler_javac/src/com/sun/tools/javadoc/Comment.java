@@ -44,14 +44,21 @@ import com.sun.tools.javac.util.ListBuffer;
 class Comment {
 
     /**
-     * sorted comments with different tags.
+     * The scan of the comment string, which may be shared with other
+     * comments with the same string.
      */
-    private final ListBuffer<Tag> tagList = new ListBuffer<Tag>();
+    private final Scan scan;
 
     /**
-     * text minus any tags.
+     * The tags of this comment, in the order of the scan, each created
+     * the first time it is asked for.
      */
-    private String text;
+    private final Tag[] tagArray;
+
+    /**
+     * The doc item holding this comment.
+     */
+    private final DocImpl holder;
 
     /**
      * Doc environment
@@ -62,7 +69,79 @@ class Comment {
      * constructor of Comment.
      */
     Comment(final DocImpl holder, final String commentString) {
+        this.holder = holder;
         this.docenv = holder.env;
+        Scan s = docenv.commentScans.get(commentString);
+        if (s == null) {
+            s = new Scan(commentString);
+            docenv.commentScans.put(commentString, s);
+        }
+        this.scan = s;
+        this.tagArray = new Tag[s.tagNames.length];
+        for (int i = 0; i < tagArray.length; i++) {
+            String tagName = s.tagNames[i];
+            if (s.isEmpty(i) && isCheckedForArguments(tagName)) {
+                docenv.warning(holder, "tag.tag_has_no_arguments", tagName);
+            }
+        }
+    }
+
+    /**
+     * The text of a comment minus any tags, and the name and position of
+     * each tag, found by a single pass over the comment string.  The tag
+     * objects themselves are only created when they are asked for, since
+     * they depend on the doc item holding the comment.
+     */
+    static class Scan {
+        /**
+         * The comment string that was scanned.
+         */
+        final String commentString;
+
+        /**
+         * text minus any tags.
+         */
+        String text;
+
+        /**
+         * The names of the tags, in order.
+         */
+        final String[] tagNames;
+
+        /**
+         * The start and end of the text of each tag in the comment string.
+         */
+        final int[] tagBounds;
+
+        /**
+         * The tags found so far, while scanning.
+         */
+        private ListBuffer<String> names = new ListBuffer<String>();
+        private int[] bounds = new int[8];
+
+        Scan(String commentString) {
+            this.commentString = commentString;
+            parseCommentStateMachine();
+            tagNames = names.toArray(new String[names.length()]);
+            tagBounds = bounds;
+            names = null;
+            bounds = null;
+        }
+
+        /**
+         * Return true if the text of the given tag is empty.
+         */
+        boolean isEmpty(int i) {
+            return tagBounds[2 * i + 1] <= tagBounds[2 * i];
+        }
+
+        /**
+         * Return the text of the given tag.
+         */
+        String tagText(int i) {
+            return isEmpty(i) ? "" :
+                commentString.substring(tagBounds[2 * i], tagBounds[2 * i + 1]);
+        }
 
         /**
          * Separate the comment into the text part and zero to N tags.
@@ -74,129 +153,143 @@ class Comment {
          * the tag text.
          * </pre>
          */
-        class CommentStringParser {
-            /**
-             * The entry point to the comment string parser
-             */
-            void parseCommentStateMachine() {
-                final int IN_TEXT = 1;
-                final int TAG_GAP = 2;
-                final int TAG_NAME = 3;
-                int state = TAG_GAP;
-                boolean newLine = true;
-                String tagName = null;
-                int tagStart = 0;
-                int textStart = 0;
-                int lastNonWhite = -1;
-                int len = commentString.length();
-                for (int inx = 0; inx < len; ++inx) {
-                    char ch = commentString.charAt(inx);
-                    boolean isWhite = Character.isWhitespace(ch);
-                    switch (state)  {
-                        case TAG_NAME:
-                            if (isWhite) {
-                                tagName = commentString.substring(tagStart, inx);
-                                state = TAG_GAP;
-                            }
-                            break;
-                        case TAG_GAP:
-                            if (isWhite) {
-                                break;
-                            }
-                            textStart = inx;
-                            state = IN_TEXT;
-                            /* fall thru */
-                        case IN_TEXT:
-                            if (newLine && ch == '@') {
-                                parseCommentComponent(tagName, textStart,
-                                                      lastNonWhite+1);
-                                tagStart = inx;
-                                state = TAG_NAME;
-                            }
-                            break;
-                    };
-                    if (ch == '\n') {
-                        newLine = true;
-                    } else if (!isWhite) {
-                        lastNonWhite = inx;
-                        newLine = false;
-                    }
-                }
-                // Finish what's currently being processed
+        private void parseCommentStateMachine() {
+            final int IN_TEXT = 1;
+            final int TAG_GAP = 2;
+            final int TAG_NAME = 3;
+            int state = TAG_GAP;
+            boolean newLine = true;
+            String tagName = null;
+            int tagStart = 0;
+            int textStart = 0;
+            int lastNonWhite = -1;
+            int len = commentString.length();
+            for (int inx = 0; inx < len; ++inx) {
+                char ch = commentString.charAt(inx);
+                boolean isWhite = Character.isWhitespace(ch);
                 switch (state)  {
                     case TAG_NAME:
-                        tagName = commentString.substring(tagStart, len);
-                        /* fall thru */
+                        if (isWhite) {
+                            tagName = commentString.substring(tagStart, inx);
+                            state = TAG_GAP;
+                        }
+                        break;
                     case TAG_GAP:
-                        textStart = len;
+                        if (isWhite) {
+                            break;
+                        }
+                        textStart = inx;
+                        state = IN_TEXT;
                         /* fall thru */
                     case IN_TEXT:
-                        parseCommentComponent(tagName, textStart, lastNonWhite+1);
+                        if (newLine && ch == '@') {
+                            parseCommentComponent(tagName, textStart,
+                                                  lastNonWhite+1);
+                            tagStart = inx;
+                            state = TAG_NAME;
+                        }
                         break;
                 };
-            }
-
-            /**
-             * Save away the last parsed item.
-             */
-            void parseCommentComponent(String tagName,
-                                       int from, int upto) {
-                String tx = upto <= from ? "" : commentString.substring(from, upto);
-                if (tagName == null) {
-                    text = tx;
-                } else {
-                    TagImpl tag;
-                    if (tagName.equals("@exception") || tagName.equals("@throws")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new ThrowsTagImpl(holder, tagName, tx);
-                    } else if (tagName.equals("@param")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new ParamTagImpl(holder, tagName, tx);
-                    } else if (tagName.equals("@see")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new SeeTagImpl(holder, tagName, tx);
-                    } else if (tagName.equals("@serialField")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new SerialFieldTagImpl(holder, tagName, tx);
-                    } else if (tagName.equals("@return")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new TagImpl(holder, tagName, tx);
-                    } else if (tagName.equals("@author")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new TagImpl(holder, tagName, tx);
-                    } else if (tagName.equals("@version")) {
-                        warnIfEmpty(tagName, tx);
-                        tag = new TagImpl(holder, tagName, tx);
-                    } else {
-                        tag = new TagImpl(holder, tagName, tx);
-                    }
-                    tagList.append(tag);
+                if (ch == '\n') {
+                    newLine = true;
+                } else if (!isWhite) {
+                    lastNonWhite = inx;
+                    newLine = false;
                 }
             }
+            // Finish what's currently being processed
+            switch (state)  {
+                case TAG_NAME:
+                    tagName = commentString.substring(tagStart, len);
+                    /* fall thru */
+                case TAG_GAP:
+                    textStart = len;
+                    /* fall thru */
+                case IN_TEXT:
+                    parseCommentComponent(tagName, textStart, lastNonWhite+1);
+                    break;
+            };
+        }
 
-            void warnIfEmpty(String tagName, String tx) {
-                if (tx.length() == 0) {
-                    docenv.warning(holder, "tag.tag_has_no_arguments", tagName);
+        /**
+         * Save away the last parsed item.
+         */
+        private void parseCommentComponent(String tagName,
+                                           int from, int upto) {
+            if (tagName == null) {
+                text = upto <= from ? "" : commentString.substring(from, upto);
+            } else {
+                int n = names.length();
+                if (2 * n + 2 > bounds.length) {
+                    int[] newBounds = new int[bounds.length * 2];
+                    System.arraycopy(bounds, 0, newBounds, 0, bounds.length);
+                    bounds = newBounds;
                 }
+                bounds[2 * n] = from;
+                bounds[2 * n + 1] = upto;
+                names.append(tagName);
             }
-
         }
+    }
+
+    /**
+     * Return true if a tag with the given name should be reported if it
+     * has no text.
+     */
+    private static boolean isCheckedForArguments(String tagName) {
+        return tagName.equals("@exception") || tagName.equals("@throws")
+            || tagName.equals("@param") || tagName.equals("@see")
+            || tagName.equals("@serialField") || tagName.equals("@return")
+            || tagName.equals("@author") || tagName.equals("@version");
+    }
+
+    /**
+     * Return the kind of a tag with the given name, without creating it.
+     */
+    private static String kindOf(String tagName) {
+        return tagName.equals("@exception") ? "@throws" : tagName;
+    }
 
-        new CommentStringParser().parseCommentStateMachine();
+    /**
+     * Return the tag at the given position, creating it if necessary.
+     */
+    private Tag tag(int i) {
+        Tag tag = tagArray[i];
+        if (tag == null) {
+            String tagName = scan.tagNames[i];
+            String tx = scan.tagText(i);
+            if (tagName.equals("@exception") || tagName.equals("@throws")) {
+                tag = new ThrowsTagImpl(holder, tagName, tx);
+            } else if (tagName.equals("@param")) {
+                tag = new ParamTagImpl(holder, tagName, tx);
+            } else if (tagName.equals("@see")) {
+                tag = new SeeTagImpl(holder, tagName, tx);
+            } else if (tagName.equals("@serialField")) {
+                tag = new SerialFieldTagImpl(holder, tagName, tx);
+            } else {
+                tag = new TagImpl(holder, tagName, tx);
+            }
+            tagArray[i] = tag;
+        }
+        return tag;
     }
 
     /**
      * Return the text of the comment.
      */
     String commentText() {
-        return text;
+        return scan.text;
     }
 
     /**
      * Return all tags in this comment.
      */
     Tag[] tags() {
-        return tagList.toArray(new Tag[tagList.length()]);
+        Tag[] result = new Tag[tagArray.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tag(i);
+        }
+        return result;
     }
 
     /**
@@ -208,9 +301,9 @@ class Comment {
         if (target.charAt(0) != '@') {
             target = "@" + target;
         }
-        for (Tag tag : tagList) {
-            if (tag.kind().equals(target)) {
-                found.append(tag);
+        for (int i = 0; i < tagArray.length; i++) {
+            if (kindOf(scan.tagNames[i]).equals(target)) {
+                found.append(tag(i));
             }
         }
         return found.toArray(new Tag[found.length()]);
@@ -221,9 +314,9 @@ class Comment {
      */
     ThrowsTag[] throwsTags() {
         ListBuffer<ThrowsTag> found = new ListBuffer<ThrowsTag>();
-        for (Tag next : tagList) {
-            if (next instanceof ThrowsTag) {
-                found.append((ThrowsTag)next);
+        for (int i = 0; i < tagArray.length; i++) {
+            if (kindOf(scan.tagNames[i]).equals("@throws")) {
+                found.append((ThrowsTag)tag(i));
             }
         }
         return found.toArray(new ThrowsTag[found.length()]);
@@ -250,9 +343,9 @@ class Comment {
      */
     private ParamTag[] paramTags(boolean typeParams) {
         ListBuffer<ParamTag> found = new ListBuffer<ParamTag>();
-        for (Tag next : tagList) {
-            if (next instanceof ParamTag) {
-                ParamTag p = (ParamTag)next;
+        for (int i = 0; i < tagArray.length; i++) {
+            if (scan.tagNames[i].equals("@param")) {
+                ParamTag p = (ParamTag)tag(i);
                 if (typeParams == p.isTypeParameter()) {
                     found.append(p);
                 }
@@ -266,9 +359,9 @@ class Comment {
      */
     SeeTag[] seeTags() {
         ListBuffer<SeeTag> found = new ListBuffer<SeeTag>();
-        for (Tag next : tagList) {
-            if (next instanceof SeeTag) {
-                found.append((SeeTag)next);
+        for (int i = 0; i < tagArray.length; i++) {
+            if (scan.tagNames[i].equals("@see")) {
+                found.append((SeeTag)tag(i));
             }
         }
         return found.toArray(new SeeTag[found.length()]);
@@ -279,9 +372,9 @@ class Comment {
      */
     SerialFieldTag[] serialFieldTags() {
         ListBuffer<SerialFieldTag> found = new ListBuffer<SerialFieldTag>();
-        for (Tag next : tagList) {
-            if (next instanceof SerialFieldTag) {
-                found.append((SerialFieldTag)next);
+        for (int i = 0; i < tagArray.length; i++) {
+            if (scan.tagNames[i].equals("@serialField")) {
+                found.append((SerialFieldTag)tag(i));
             }
         }
         return found.toArray(new SerialFieldTag[found.length()]);
@@ -425,6 +518,6 @@ class Comment {
      * Return text for this Doc comment.
      */
     public String toString() {
-        return text;
+        return scan.text;
     }
 }
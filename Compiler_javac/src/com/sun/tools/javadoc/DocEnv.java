@@ -111,6 +111,12 @@ public class DocEnv {
      */
     private boolean silent = false;
 
+    /**
+     * The scans of the doc comments seen so far, shared between the
+     * comments with the same text.
+     */
+    final Map<String, Comment.Scan> commentScans = new HashMap<String, Comment.Scan>();
+
     /**
      * Constructor
      *
@@ -137,6 +143,10 @@ public class DocEnv {
         this.silent = silent;
     }
 
+    boolean isSilent() {
+        return silent;
+    }
+
     /**
      * Look up ClassDoc by qualified name.
      */
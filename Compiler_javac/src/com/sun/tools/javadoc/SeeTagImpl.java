@@ -60,9 +60,31 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
 
     String label = "";
 
+    /**
+     * True once the reference has been looked up.
+     */
+    private boolean resolved = false;
+
+    /**
+     * True if warnings were suppressed when this tag was created, in which
+     * case they are also suppressed when the reference is looked up.
+     */
+    private final boolean silent;
+
     SeeTagImpl(DocImpl holder, String name, String text) {
         super(holder, name, text);
+        silent = docenv().isSilent();
         parseSeeString();
+    }
+
+    /**
+     * Look up what is referenced, the first time it is asked for.
+     */
+    private void resolve() {
+        if (resolved) {
+            return;
+        }
+        resolved = true;
         if (where != null) {
             ClassDocImpl container = null;
             if (holder instanceof MemberDoc) {
@@ -71,7 +93,16 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
             } else if (holder instanceof ClassDoc) {
                 container = (ClassDocImpl)holder;
             }
-            findReferenced(container);
+            DocEnv env = docenv();
+            boolean wasSilent = env.isSilent();
+            try {
+                if (silent) {
+                    env.setSilent(true);
+                }
+                findReferenced(container);
+            } finally {
+                env.setSilent(wasSilent);
+            }
         }
     }
 
@@ -83,6 +114,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
      * Return empty string if class name was not specified..
      */
     public String referencedClassName() {
+        resolve();
         return where;
     }
 
@@ -93,6 +125,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
      * Returns null if no known package found.
      */
     public PackageDoc referencedPackage() {
+        resolve();
         return referencedPackage;
     }
 
@@ -103,6 +136,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
      * Returns null if class is not a class specified on the javadoc command line..
      */
     public ClassDoc referencedClass() {
+        resolve();
         return referencedClass;
     }
 
@@ -126,6 +160,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
      * Returns null if member could not be determined.
      */
     public MemberDoc referencedMember() {
+        resolve();
         return referencedMember;
     }
 
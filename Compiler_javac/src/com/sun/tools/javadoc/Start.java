@@ -76,7 +76,12 @@ class Start {
     boolean quiet = false;
     String encoding = null;
 
-    private DocletInvoker docletInvoker;
+    /**
+     * The doclets to run, in the order they were specified.  All of them
+     * are run over the same RootDoc, so that the sources are only parsed
+     * and entered once however many doclets are run.
+     */
+    private List<DocletInvoker> docletInvokers = List.nil();
 
     private static final int F_VERBOSE = 1 << 0;
     private static final int F_WARNINGS = 1 << 2;
@@ -138,8 +143,8 @@ class Start {
     private void usage() {
         messager.notice("main.usage");
 
-        // let doclet print usage information (does nothing on error)
-        if (docletInvoker != null) {
+        // let doclets print usage information (does nothing on error)
+        for (DocletInvoker docletInvoker : docletInvokers) {
             docletInvoker.optionLength("-help");
         }
     }
@@ -321,7 +326,7 @@ class Start {
             // other arg starts with - is invalid
             else if ( arg.startsWith("-") ) {
                 int optionLength;
-                optionLength = docletInvoker.optionLength(arg);
+                optionLength = docletOptionLength(arg);
                 if (optionLength < 0) {
                     // error already displayed
                     exit();
@@ -348,9 +353,11 @@ class Start {
             usageError("main.No_packages_or_classes_specified");
         }
 
-        if (!docletInvoker.validOptions(options.toList())) {
-            // error message already displayed
-            exit();
+        for (DocletInvoker docletInvoker : docletInvokers) {
+            if (!docletInvoker.validOptions(options.toList())) {
+                // error message already displayed
+                exit();
+            }
         }
 
         JavadocTool comp = JavadocTool.make0(context);
@@ -360,18 +367,26 @@ class Start {
             setFilter(defaultFilter);
         }
 
-        LanguageVersion languageVersion = docletInvoker.languageVersion();
+        LanguageVersion languageVersion = docletInvokers.head.languageVersion();
+        for (DocletInvoker docletInvoker : docletInvokers.tail) {
+            if (isLegacy(docletInvoker.languageVersion()) != isLegacy(languageVersion)) {
+                messager.error(null, "main.doclets_need_different_language_versions");
+                exit();
+            }
+        }
         RootDocImpl root = comp.getRootDocImpl(
                 docLocale, encoding, showAccess,
                 javaNames.toList(), options.toList(), breakiterator,
                 subPackages.toList(), excludedPackages.toList(),
                 docClasses,
                 // legacy?
-                languageVersion == null || languageVersion == LanguageVersion.JAVA_1_1, quiet);
+                isLegacy(languageVersion), quiet);
 
-        // pass off control to the doclet
+        // pass off control to the doclets
         boolean ok = root != null;
-        if (ok) ok = docletInvoker.start(root);
+        for (List<DocletInvoker> l = docletInvokers; ok && l.nonEmpty(); l = l.tail) {
+            ok = l.head.start(root);
+        }
 
         // We're done.
         if (compOpts.get("-verbose") != null) {
@@ -383,7 +398,7 @@ class Start {
     }
 
     private void setDocletInvoker(String[] argv) {
-        String docletClassName = null;
+        ListBuffer<String> docletClassNames = new ListBuffer<String>();
         String docletPath = null;
 
         // Parse doclet specifying arguments
@@ -391,11 +406,10 @@ class Start {
             String arg = argv[i];
             if (arg.equals("-doclet")) {
                 oneArg(argv, i++);
-                if (docletClassName != null) {
-                    usageError("main.more_than_one_doclet_specified_0_and_1",
-                               docletClassName, argv[i]);
+                if (docletClassNames.contains(argv[i])) {
+                    usageError("main.option.already.seen", arg + " " + argv[i]);
                 }
-                docletClassName = argv[i];
+                docletClassNames.append(argv[i]);
             } else if (arg.equals("-docletpath")) {
                 oneArg(argv, i++);
                 if (docletPath == null) {
@@ -406,14 +420,39 @@ class Start {
             }
         }
 
-        if (docletClassName == null) {
-            docletClassName = defaultDocletClassName;
+        if (docletClassNames.isEmpty()) {
+            docletClassNames.append(defaultDocletClassName);
         }
 
-        // attempt to find doclet
-        docletInvoker = new DocletInvoker(messager,
-                                          docletClassName, docletPath,
-                                          docletParentClassLoader);
+        // attempt to find doclets
+        ListBuffer<DocletInvoker> invokers = new ListBuffer<DocletInvoker>();
+        for (String docletClassName : docletClassNames) {
+            invokers.append(new DocletInvoker(messager,
+                                              docletClassName, docletPath,
+                                              docletParentClassLoader));
+        }
+        docletInvokers = invokers.toList();
+    }
+
+    /**
+     * Return the number of arguments of an option, including the option
+     * itself, according to the first doclet which recognizes it; 0 if
+     * no doclet recognizes it, or negative if a doclet reported an error.
+     */
+    private int docletOptionLength(String option) {
+        int result = 0;
+        for (DocletInvoker docletInvoker : docletInvokers) {
+            int optionLength = docletInvoker.optionLength(option);
+            if (optionLength < 0)
+                return optionLength;
+            if (result == 0)
+                result = optionLength;
+        }
+        return result;
+    }
+
+    private static boolean isLegacy(LanguageVersion languageVersion) {
+        return languageVersion == null || languageVersion == LanguageVersion.JAVA_1_1;
     }
 
     private void setFilter(long filterBits) {
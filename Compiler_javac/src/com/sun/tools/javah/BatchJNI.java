@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tools.javah;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import com.sun.tools.classfile.AccessFlags;
+import com.sun.tools.classfile.Attribute;
+import com.sun.tools.classfile.ClassFile;
+import com.sun.tools.classfile.ConstantPool;
+import com.sun.tools.classfile.ConstantPoolException;
+import com.sun.tools.classfile.ConstantValue_attribute;
+import com.sun.tools.classfile.Field;
+import com.sun.tools.classfile.InnerClasses_attribute;
+import com.sun.tools.classfile.Method;
+import com.sun.tools.javac.file.JavacFileManager;
+import com.sun.tools.javac.util.Context;
+
+
+/**
+ * Header file generator for JNI, used by the -Xbatch option.
+ *
+ * Rather than going through a javadoc run, the requested classes, their
+ * superclasses and the classes named in their native method signatures
+ * are read once with the class file reader.  The headers are then
+ * generated on a pool of worker threads, and each header file is only
+ * written if its contents have changed.  With -verbose, the time taken
+ * by each phase is reported.
+ */
+
+public class BatchJNI extends GenBase {
+
+    private final JavacFileManager fileManager;
+
+    /*
+     * The class files read, by internal name.  A null value records a
+     * class that could not be found.  The map is only modified before
+     * the worker threads are started.
+     */
+    private final Map<String, ClassFile> classFiles = new HashMap<String, ClassFile>();
+
+    /*
+     * Names of the classes for which we must generate output.
+     */
+    private List<String> classNames;
+
+    public BatchJNI(List<String> options) {
+        fileManager = new JavacFileManager(new Context(), true, null);
+        for (Iterator<String> it = options.iterator(); it.hasNext(); )
+            fileManager.handleOption(it.next(), it);
+    }
+
+    public void setClassNames(List<String> classNames) {
+        this.classNames = classNames;
+    }
+
+    public String getIncludes() {
+        return "#include <jni.h>";
+    }
+
+    public void run() throws IOException, ClassNotFoundException {
+        long start = System.currentTimeMillis();
+        final List<ClassFile> classes = new ArrayList<ClassFile>();
+        try {
+            for (String name : classNames) {
+                ClassFile cf = findClass(name);
+                if (cf == null)
+                    throw new ClassNotFoundException(name);
+                classes.add(cf);
+                loadReferencedClasses(cf);
+            }
+        } finally {
+            fileManager.close();
+        }
+        long loaded = System.currentTimeMillis();
+        if (Util.verbose)
+            Util.log("[Read " + classFiles.size() + " class files in "
+                     + (loaded - start) + " ms]");
+
+        int nThreads = Math.min(classes.size(),
+                                Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads,
+            new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "javah header generator");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        int written = 0;
+        try {
+            if (outFile != null) {
+                /* Everything goes to one big file... */
+                List<Future<byte[]>> headers = new ArrayList<Future<byte[]>>();
+                for (final ClassFile cf : classes) {
+                    headers.add(executor.submit(new Callable<byte[]>() {
+                        public byte[] call() throws ConstantPoolException {
+                            ByteArrayOutputStream bout = new ByteArrayOutputStream(8192);
+                            write(bout, cf);
+                            return bout.toByteArray();
+                        }
+                    }));
+                }
+                ByteArrayOutputStream bout = new ByteArrayOutputStream(8192);
+                writeFileTop(bout); /* only once */
+                for (Future<byte[]> header : headers)
+                    bout.write(getResult(header));
+                if (Util.verbose)
+                    Util.log("[Generated " + classes.size() + " headers in "
+                             + (System.currentTimeMillis() - loaded) + " ms]");
+                if (writeIfChanged(bout.toByteArray(), outFile))
+                    written++;
+            } else {
+                /* Each class goes to its own file... */
+                List<Future<Boolean>> files = new ArrayList<Future<Boolean>>();
+                for (final ClassFile cf : classes) {
+                    files.add(executor.submit(new Callable<Boolean>() {
+                        public Boolean call() throws IOException, ConstantPoolException {
+                            ByteArrayOutputStream bout = new ByteArrayOutputStream(8192);
+                            writeFileTop(bout);
+                            write(bout, cf);
+                            return writeIfChanged(bout.toByteArray(),
+                                                  getFileName(qualifiedName(cf)));
+                        }
+                    }));
+                }
+                for (Future<Boolean> file : files) {
+                    if (getResult(file))
+                        written++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (Util.verbose)
+            Util.log("[Wrote " + written + " of "
+                     + (outFile != null ? 1 : classes.size()) + " files in "
+                     + (System.currentTimeMillis() - start) + " ms]");
+    }
+    //where
+        private <T> T getResult(Future<T> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException)cause;
+                if (cause instanceof ConstantPoolException)
+                    Util.error("bad.class.file", cause.getMessage());
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+                if (cause instanceof Error)
+                    throw (Error)cause;
+                throw new IOException(cause);
+            }
+        }
+
+    protected void write(OutputStream o, ClassFile clazz)
+        throws ConstantPoolException {
+
+        ConstantPool cp = clazz.constant_pool;
+        String qualifiedName = qualifiedName(clazz);
+        String cname = Mangle.mangle(qualifiedName, Mangle.Type.CLASS);
+        PrintWriter pw = wrapWriter(o);
+        pw.println(guardBegin(cname));
+        pw.println(cppGuardBegin());
+
+        /* Write statics, including those of the super classes. */
+        List<ClassFile> supers = new ArrayList<ClassFile>();
+        for (ClassFile c = clazz; c != null; c = getSuperclass(c))
+            supers.add(0, c);
+        for (ClassFile c : supers) {
+            for (Field f : c.fields) {
+                if (!f.access_flags.is(AccessFlags.ACC_STATIC)
+                    || f.access_flags.is(AccessFlags.ACC_SYNTHETIC))
+                    continue;
+                String s = defineForStatic(qualifiedName,
+                                           f.getName(c.constant_pool),
+                                           constantValue(c, f));
+                if (s != null) {
+                    pw.println(s);
+                }
+            }
+        }
+
+        /* Write methods. */
+        String className = clazz.getName().replace('/', '.');
+        for (Method md : clazz.methods) {
+            if (!isNative(md))
+                continue;
+            String methodName = md.getName(cp);
+            String descriptor = md.descriptor.getValue(cp);
+            String sig = typeSignature(descriptor);
+            boolean longName = false;
+            for (Method m : clazz.methods) {
+                if ((m != md)
+                    && isNative(m)
+                    && (methodName.equals(m.getName(cp))))
+                    longName = true;
+            }
+            String returnType = descriptor.substring(descriptor.lastIndexOf(')') + 1);
+            pw.println("/*");
+            pw.println(" * Class:     " + cname);
+            pw.println(" * Method:    " +
+                       Mangle.mangle(methodName, Mangle.Type.FIELDSTUB));
+            pw.println(" * Signature: " + sig);
+            pw.println(" */");
+            pw.println("JNIEXPORT " + jniType(returnType) +
+                       " JNICALL " +
+                       Mangle.mangleMethod(className, methodName, sig,
+                                           (longName) ?
+                                           Mangle.Type.METHOD_JNI_LONG :
+                                           Mangle.Type.METHOD_JNI_SHORT));
+            pw.print("  (JNIEnv *, ");
+            List<String> args = getParameterTypes(descriptor);
+            if (md.access_flags.is(AccessFlags.ACC_STATIC))
+                pw.print("jclass");
+            else
+                pw.print("jobject");
+            if (args.size() > 0)
+                pw.print(", ");
+
+            for (int j = 0; j < args.size(); j++) {
+                pw.print(jniType(args.get(j)));
+                if (j != (args.size() - 1)) {
+                    pw.print(", ");
+                }
+            }
+            pw.println(");" + lineSep);
+        }
+        pw.println(cppGuardEnd());
+        pw.println(guardEnd(cname));
+    }
+
+    protected final String jniType(String t) throws ConstantPoolException {
+        if (t.charAt(0) == '[') {
+            switch (t.charAt(1)) {
+            case '[':
+            case 'L': return "jobjectArray";
+            case 'Z': return "jbooleanArray";
+            case 'B': return "jbyteArray";
+            case 'C': return "jcharArray";
+            case 'S': return "jshortArray";
+            case 'I': return "jintArray";
+            case 'J': return "jlongArray";
+            case 'F': return "jfloatArray";
+            case 'D': return "jdoubleArray";
+            }
+        } else {
+            switch (t.charAt(0)) {
+            case 'V': return "void";
+            case 'Z': return "jboolean";
+            case 'B': return "jbyte";
+            case 'C': return "jchar";
+            case 'S': return "jshort";
+            case 'I': return "jint";
+            case 'J': return "jlong";
+            case 'F': return "jfloat";
+            case 'D': return "jdouble";
+            case 'L':
+                String name = t.substring(1, t.length() - 1);
+                if (name.equals("java/lang/String")) return "jstring";
+                else if (isSubclass(name, "java/lang/Throwable")) return "jthrowable";
+                else if (isSubclass(name, "java/lang/Class")) return "jclass";
+                else return "jobject";
+            }
+        }
+        Util.bug("jni.unknown.type");
+        return null; /* dead code. */
+    }
+
+    /*
+     * Find a class named on the command line.  Member classes may be named
+     * either by their binary name or by their qualified name.
+     */
+    private ClassFile findClass(String name) throws IOException {
+        String internalName = name.replace('.', '/');
+        ClassFile cf;
+        int sep;
+        while ((cf = loadClass(internalName)) == null
+               && (sep = internalName.lastIndexOf('/')) != -1) {
+            internalName = internalName.substring(0, sep) + "$"
+                + internalName.substring(sep + 1);
+        }
+        return cf;
+    }
+
+    /*
+     * Read the classes needed to generate the header for a class: its
+     * superclasses, for their static fields, and the superclasses of the
+     * classes in its native method signatures, to map them to JNI types.
+     */
+    private void loadReferencedClasses(ClassFile cf) throws IOException {
+        try {
+            loadSuperclasses(cf);
+            for (Method md : cf.methods) {
+                if (!isNative(md))
+                    continue;
+                String sig = md.descriptor.getValue(cf.constant_pool);
+                List<String> types = getParameterTypes(sig);
+                types.add(sig.substring(sig.lastIndexOf(')') + 1));
+                for (String t : types) {
+                    if (t.charAt(0) == 'L')
+                        loadSuperclasses(loadClass(t.substring(1, t.length() - 1)));
+                }
+            }
+        } catch (ConstantPoolException e) {
+            Util.error("bad.class.file", e.getMessage());
+        }
+    }
+
+    private void loadSuperclasses(ClassFile cf)
+        throws IOException, ConstantPoolException {
+        while (cf != null && cf.super_class != 0)
+            cf = loadClass(cf.getSuperclassName());
+    }
+
+    private ClassFile loadClass(String internalName) throws IOException {
+        if (classFiles.containsKey(internalName))
+            return classFiles.get(internalName);
+        String binaryName = internalName.replace('/', '.');
+        JavaFileObject fo = fileManager.getJavaFileForInput(
+            StandardLocation.PLATFORM_CLASS_PATH, binaryName, JavaFileObject.Kind.CLASS);
+        if (fo == null)
+            fo = fileManager.getJavaFileForInput(
+                StandardLocation.CLASS_PATH, binaryName, JavaFileObject.Kind.CLASS);
+        ClassFile cf = null;
+        if (fo != null) {
+            InputStream in = fo.openInputStream();
+            try {
+                cf = ClassFile.read(in);
+            } catch (ConstantPoolException e) {
+                Util.error("bad.class.file", e.getMessage());
+            } finally {
+                in.close();
+            }
+        }
+        classFiles.put(internalName, cf);
+        return cf;
+    }
+
+    private ClassFile getSuperclass(ClassFile cf) throws ConstantPoolException {
+        if (cf.super_class == 0)
+            return null;
+        return classFiles.get(cf.getSuperclassName());
+    }
+
+    private boolean isSubclass(String name, String superName)
+        throws ConstantPoolException {
+        ClassFile cf;
+        while (!name.equals(superName)) {
+            if ((cf = classFiles.get(name)) == null || cf.super_class == 0)
+                return false;
+            name = cf.getSuperclassName();
+        }
+        return true;
+    }
+
+    private static boolean isNative(Method md) {
+        return md.access_flags.is(AccessFlags.ACC_NATIVE)
+            && !md.access_flags.is(AccessFlags.ACC_SYNTHETIC);
+    }
+
+    /*
+     * The value of a constant field, boxed as javadoc would box it, or
+     * null if the field is not a constant.
+     */
+    private static Object constantValue(ClassFile cf, Field f)
+        throws ConstantPoolException {
+        if (!f.access_flags.is(AccessFlags.ACC_FINAL))
+            return null;
+        ConstantValue_attribute attr =
+            (ConstantValue_attribute)f.attributes.get(Attribute.ConstantValue);
+        if (attr == null)
+            return null;
+        ConstantPool.CPInfo info = cf.constant_pool.get(attr.constantvalue_index);
+        switch (info.getTag()) {
+        case ConstantPool.CONSTANT_Integer:
+            int i = ((ConstantPool.CONSTANT_Integer_info)info).value;
+            if (f.descriptor.getValue(cf.constant_pool).equals("Z"))
+                return Boolean.valueOf(i != 0);
+            return Integer.valueOf(i);
+        case ConstantPool.CONSTANT_Long:
+            return Long.valueOf(((ConstantPool.CONSTANT_Long_info)info).value);
+        case ConstantPool.CONSTANT_Float:
+            return Float.valueOf(((ConstantPool.CONSTANT_Float_info)info).value);
+        case ConstantPool.CONSTANT_Double:
+            return Double.valueOf(((ConstantPool.CONSTANT_Double_info)info).value);
+        default:
+            return null;
+        }
+    }
+
+    /*
+     * The qualified name of a class, using the InnerClasses attribute to
+     * find the simple names of member classes.
+     */
+    private static String qualifiedName(ClassFile cf) throws ConstantPoolException {
+        InnerClasses_attribute attr =
+            (InnerClasses_attribute)cf.getAttribute(Attribute.InnerClasses);
+        return qualifiedName(cf.getName(), attr, cf.constant_pool);
+    }
+
+    private static String qualifiedName(String internalName,
+                                        InnerClasses_attribute attr,
+                                        ConstantPool cp)
+        throws ConstantPoolException {
+        if (attr != null) {
+            for (InnerClasses_attribute.Info info : attr.classes) {
+                ConstantPool.CONSTANT_Class_info inner = info.getInnerClassInfo(cp);
+                ConstantPool.CONSTANT_Class_info outer = info.getOuterClassInfo(cp);
+                String simpleName = info.getInnerName(cp);
+                if (inner != null && outer != null && simpleName != null
+                    && inner.getName().equals(internalName))
+                    return qualifiedName(outer.getName(), attr, cp) + "." + simpleName;
+            }
+        }
+        return internalName.replace('/', '.');
+    }
+
+    /*
+     * The type signature of a method as javadoc based javah writes it,
+     * which names member classes by their qualified names rather than
+     * their binary names.
+     */
+    private String typeSignature(String descriptor) throws ConstantPoolException {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        int start;
+        while ((start = descriptor.indexOf('L', i) + 1) != 0) {
+            int semi = descriptor.indexOf(';', start);
+            sb.append(descriptor, i, start);
+            String name = descriptor.substring(start, semi);
+            ClassFile cf = classFiles.get(name);
+            if (cf != null)
+                name = qualifiedName(cf).replace('.', '/');
+            sb.append(name);
+            i = semi;
+        }
+        sb.append(descriptor, i, descriptor.length());
+        return sb.toString();
+    }
+
+    /*
+     * Split the parameters of a method descriptor into field descriptors.
+     */
+    private static List<String> getParameterTypes(String descriptor) {
+        List<String> types = new ArrayList<String>();
+        int end = descriptor.lastIndexOf(')');
+        int i = 1;
+        while (i < end) {
+            int start = i;
+            while (descriptor.charAt(i) == '[')
+                i++;
+            if (descriptor.charAt(i) == 'L')
+                i = descriptor.indexOf(';', i);
+            i++;
+            types.add(descriptor.substring(start, i));
+        }
+        return types;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tools.javah;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+
+
+/**
+ * The parts of a generator of support files for native methods that do
+ * not depend on how the classes are read: output location, file
+ * preamble, C pre-processor guards, constant definitions and writing of
+ * changed files.  Gen adds the generation of files for classes read
+ * through javadoc; BatchJNI reads class files itself.
+ */
+
+public abstract class GenBase {
+    protected String lineSep = System.getProperty("line.separator");
+
+    static private final boolean isWindows =
+        System.getProperty("os.name").startsWith("Windows");
+
+    /**
+     * Override this method to provide a list of #include statements
+     * required by the native interface.
+     */
+    protected abstract String getIncludes();
+
+    /*
+     * Output location.
+     */
+    protected String outDir;
+    protected String outFile;
+
+    public void setOutDir(String outDir) {
+        /* Check important, otherwise concatenation of two null strings
+         * produces the "nullnull" String.
+         */
+        if (outDir != null) {
+            this.outDir = outDir + System.getProperty("file.separator");
+            File d = new File(outDir);
+            if (!d.exists())
+                if (!d.mkdirs())
+                    Util.error("cant.create.dir", d.toString());
+        }
+    }
+
+    public void setOutFile(String outFile) {
+        this.outFile = outFile;
+    }
+
+    /*
+     * Smartness with generated files.
+     */
+    protected boolean force = false;
+
+    public void setForce(boolean state) {
+        force = state;
+    }
+
+    /**
+     * We explicitly need to write ASCII files because that is what C
+     * compilers understand.
+     */
+    protected PrintWriter wrapWriter(OutputStream o) {
+        try {
+            return new
+            PrintWriter(new OutputStreamWriter(o, "ISO8859_1"), true);
+        } catch (UnsupportedEncodingException use) {
+            Util.bug("encoding.iso8859_1.not.found");
+            return null; /* dead code */
+        }
+    }
+
+    /*
+     * Write the contents of byte[] b to a file named file.  Writing
+     * is done if either the file doesn't exist or if the contents are
+     * different.  Returns true if the file was written.
+     */
+    boolean writeIfChanged(byte[] b, String file) throws IOException {
+        File f = new File(file);
+        boolean mustWrite = false;
+        String event = "[No need to update file ";
+
+        if (force) {
+            mustWrite = true;
+            event = "[Forcefully writing file ";
+        } else {
+            if (!f.exists()) {
+                mustWrite = true;
+                event = "[Creating file ";
+            } else {
+                int l = (int)f.length();
+                if (b.length != l) {
+                    mustWrite = true;
+                    event = "[Overwriting file ";
+                } else {
+                    /* Lengths are equal, so read it. */
+                    byte[] a = new byte[l];
+                    FileInputStream in = new FileInputStream(f);
+                    if (in.read(a) != l) {
+                        in.close();
+                        /* This can't happen, we already checked the length. */
+                        Util.error("not.enough.bytes", Integer.toString(l),
+                                   f.toString());
+                    }
+                    in.close();
+                    while (--l >= 0) {
+                        if (a[l] != b[l]) {
+                            mustWrite = true;
+                            event = "[Overwriting file ";
+                        }
+                    }
+                }
+            }
+        }
+        if (Util.verbose)
+            Util.log(event + file + "]");
+        if (mustWrite) {
+            OutputStream out = new FileOutputStream(file);
+            out.write(b); /* No buffering, just one big write! */
+            out.close();
+        }
+        return mustWrite;
+    }
+
+    /*
+     * Generate the #define for a static final field, given the qualified
+     * name of its class and its constant value, which is null if the field
+     * is not a constant.
+     */
+    protected String defineForStatic(String cnamedoc, String fnamedoc, Object value) {
+
+        String cname = Mangle.mangle(cnamedoc, Mangle.Type.CLASS);
+        String fname = Mangle.mangle(fnamedoc, Mangle.Type.FIELDSTUB);
+
+        if (value != null) { /* so it is a ConstantExpression */
+            String constString = null;
+            if ((value instanceof Integer)
+                || (value instanceof Byte)
+                || (value instanceof Character)
+                || (value instanceof Short)
+                || (value instanceof Boolean)) {
+                /* covers byte, boolean, char, short, int */
+                if(value instanceof Boolean)
+                    constString = (value.toString() == "true") ? "1L" : "0L";
+                else
+                    constString = value.toString() + "L";
+            } else if (value instanceof Long) {
+                // Visual C++ supports the i64 suffix, not LL.
+                if (isWindows)
+                    constString = value.toString() + "i64";
+                else
+                    constString = value.toString() + "LL";
+            } else if (value instanceof Float) {
+                /* bug for bug */
+                float fv = ((Float)value).floatValue();
+                if (Float.isInfinite(fv))
+                    constString = ((fv < 0) ? "-" : "") + "Inff";
+                else
+                    constString = value.toString() + "f";
+            } else if (value instanceof Double) {
+                /* bug for bug */
+                double d = ((Double)value).doubleValue();
+                if (Double.isInfinite(d))
+                    constString = ((d < 0) ? "-" : "") + "InfD";
+                else
+                    constString = value.toString();
+            }
+            if (constString != null) {
+                StringBuffer s = new StringBuffer("#undef ");
+                s.append(cname); s.append("_"); s.append(fname); s.append(lineSep);
+                s.append("#define "); s.append(cname); s.append("_");
+                s.append(fname); s.append(" "); s.append(constString);
+                return s.toString();
+            }
+
+        }
+        return null;
+    }
+
+    /*
+     * Deal with the C pre-processor.
+     */
+    protected String cppGuardBegin() {
+        return "#ifdef __cplusplus" + lineSep + "extern \"C\" {" + lineSep + "#endif";
+    }
+
+    protected String cppGuardEnd() {
+        return "#ifdef __cplusplus" + lineSep + "}" + lineSep + "#endif";
+    }
+
+    protected String guardBegin(String cname) {
+        return "/* Header for class " + cname + " */" + lineSep + lineSep +
+            "#ifndef _Included_" + cname + lineSep +
+            "#define _Included_" + cname;
+    }
+
+    protected String guardEnd(String cname) {
+        return "#endif";
+    }
+
+    /*
+     * File name and file preamble related operations.
+     */
+    protected void writeFileTop(OutputStream o) {
+        PrintWriter pw = wrapWriter(o);
+        pw.println("/* DO NOT EDIT THIS FILE - it is machine generated */" + lineSep +
+                   getIncludes());
+    }
+
+    protected String baseFileName(String clazz) {
+        StringBuffer f =
+            new StringBuffer(Mangle.mangle(clazz,
+                                           Mangle.Type.CLASS));
+        if (outDir != null) {
+            f.insert(0, outDir);
+        }
+        return f.toString();
+    }
+
+    protected String getFileName(String clazz) {
+        return baseFileName(clazz) + getFileSuffix();
+    }
+
+    protected String getFileSuffix() {
+        return ".h";
+    }
+}
@@ -28,6 +28,8 @@ package com.sun.tools.javah;
 
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Javah generates support files for native methods.
@@ -41,6 +43,7 @@ public class Main{
      */
     public static void main(String[] args){
 
+        boolean batch = false;
         if (args.length == 0) {
             Util.usage(1);
         }
@@ -96,6 +99,8 @@ public class Main{
                 }
             } else if (args[i].equals("-Xnew")) {
                 // we're already using the new javah
+            } else if (args[i].equals("-Xbatch")) {
+                batch = true;
             } else if (args[i].equals("-old")) {
                 System.err.println(Util.getText("old.not.supported"));
                 Util.usage(1);
@@ -137,6 +142,11 @@ public class Main{
             }
         }
 
+        if (batch) {
+            runBatch(args);
+            System.exit(0);
+        }
+
         /* Invoke javadoc */
 
         String[] javadocargs = new String[args.length + 2];
@@ -153,4 +163,51 @@ public class Main{
         int rc = com.sun.tools.javadoc.Main.execute("javadoc", "com.sun.tools.javah.MainDoclet", javadocargs);
         System.exit(rc);
     }
+
+    /*
+     * Generate JNI headers without a javadoc run, reading the classes
+     * directly from their class files.
+     */
+    private static void runBatch(String[] args) {
+        List<String[]> options = new ArrayList<String[]>();
+        List<String> pathOptions = new ArrayList<String>();
+        List<String> classes = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("-Xbatch") || arg.equals("-Xnew")) {
+                continue;
+            } else if (arg.equals("-classpath") || arg.equals("-bootclasspath")) {
+                pathOptions.add(arg);
+                pathOptions.add(args[++i]);
+                options.add(new String[] { arg, args[i] });
+            } else if (arg.equals("-o") || arg.equals("-d") || arg.equals("-td")) {
+                options.add(new String[] { arg, args[++i] });
+            } else if (arg.charAt(0) == '-') {
+                options.add(new String[] { arg });
+            } else {
+                classes.add(arg);
+            }
+        }
+        MainDoclet.validateOptions(options.toArray(new String[options.size()][]));
+
+        if (MainDoclet.llni)  Util.error("batch.llni.mixed");
+        if (MainDoclet.stubs)  Util.error("jni.no.stubs");
+        if (MainDoclet.odir != null && MainDoclet.ofile != null)
+            Util.error("dir.file.mixed");
+        if (classes.isEmpty())
+            Util.error("no.classes.specified");
+
+        BatchJNI g = new BatchJNI(pathOptions);
+        g.setOutDir(MainDoclet.odir);
+        g.setOutFile(MainDoclet.ofile);
+        g.setForce(MainDoclet.force);
+        g.setClassNames(classes);
+        try {
+            g.run();
+        } catch (ClassNotFoundException cnfe) {
+            Util.error("class.not.found", cnfe.getMessage());
+        } catch (IOException ioe) {
+            Util.error("io.exception", ioe.getMessage());
+        }
+    }
 }
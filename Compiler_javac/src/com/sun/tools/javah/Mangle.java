@@ -113,16 +113,30 @@ class Mangle {
         }
 
         /* JNI */
-        result.append(mangle(getInnerQualifiedName(clazz), Type.JNI));
+        String sig = null;
+        if (mtype == Type.METHOD_JNI_LONG) {
+            String typesig = method.signature();
+            TypeSignature newTypeSig = new TypeSignature(root);
+            sig = newTypeSig.getTypeSignature(typesig,  method.returnType());
+        }
+        return mangleMethod(getInnerQualifiedName(clazz), method.name(), sig, mtype);
+    }
+
+    /*
+     * Mangle the name of a JNI method, given the binary name of its class
+     * and, for long names, its JVM method descriptor.
+     */
+    public static String mangleMethod(String className, String methodName,
+                                      String descriptor, int mtype) {
+        StringBuffer result = new StringBuffer(100);
+        result.append("Java_");
+        result.append(mangle(className, Type.JNI));
         result.append('_');
-        result.append(mangle(method.name(),
+        result.append(mangle(methodName,
                              Type.JNI));
         if (mtype == Type.METHOD_JNI_LONG) {
             result.append("__");
-            String typesig = method.signature();
-            TypeSignature newTypeSig = new TypeSignature(root);
-            String sig = newTypeSig.getTypeSignature(typesig,  method.returnType());
-            sig = sig.substring(1);
+            String sig = descriptor.substring(1);
             sig = sig.substring(0, sig.lastIndexOf(')'));
             sig = sig.replace('/', '.');
             result.append(mangle(sig, Type.JNI));
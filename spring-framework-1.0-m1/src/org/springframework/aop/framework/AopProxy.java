@@ -6,13 +6,22 @@
 package org.springframework.aop.framework;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import net.sf.cglib.Enhancer;
 import net.sf.cglib.MethodInterceptor;
 import net.sf.cglib.MethodProxy;
+import org.aopalliance.intercept.AspectException;
+import org.aopalliance.intercept.AttributeRegistry;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -57,6 +66,12 @@ public class AopProxy implements InvocationHandler {
 
 	/** Config used to configure this proxy */
 	private ProxyConfig config;
+
+	/**
+	 * Pointcuts applying to each method, for the pointcuts of the config
+	 * at the time they were evaluated. Replaced, never modified.
+	 */
+	private volatile PointcutChains pointcutChains;
 	
 	/**
 	 * 
@@ -78,14 +93,20 @@ public class AopProxy implements InvocationHandler {
 	 * method throws an exception.
 	 */
 	public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-	
+		AttributeRegistry attributeRegistry = this.config.getAttributeRegistry();
+		InterceptorChain chain = getInterceptorChain(method, attributeRegistry);
+
+		if (chain.invoker != null && !this.config.getExposeInvocation() && !EQUALS_METHOD.equals(method)) {
+			// No advice applies to this method: call the target directly
+			return invokeTarget(proxy, method, args, chain.invoker.getTarget());
+		}
+
 		// Create a new invocation object
 		// TODO refactor into InvocationFactory?
+		List interceptors = (chain.interceptors != null) ? chain.interceptors : chain.getInterceptors(method, args, attributeRegistry);
 		MethodInvocationImpl invocation = new MethodInvocationImpl(proxy,
 		              this.config.getTarget(), method.getDeclaringClass(),
-									method, args,
-									this.config.getMethodPointcuts(), // could customize here
-									this.config.getAttributeRegistry());
+									method, args, attributeRegistry, interceptors);
 		
 		if (this.config.getExposeInvocation()) {
 			// Make invocation available if necessary
@@ -116,6 +137,56 @@ public class AopProxy implements InvocationHandler {
 		}
 	}
 
+	/**
+	 * Invoke the target directly, as InvokerInterceptor would, without
+	 * creating a MethodInvocation.
+	 */
+	private Object invokeTarget(Object proxy, Method method, Object[] args, Object target) throws Throwable {
+		Object retVal;
+		try {
+			retVal = method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			// The client won't see the proxy, just as with InvokerInterceptor
+			throw ex.getTargetException();
+		}
+		catch (IllegalAccessException ex) {
+			throw new AspectException("Couldn't access method " + method + ", ", ex);
+		}
+		if (retVal != null && retVal == target) {
+			logger.debug("Replacing 'this' with reference to proxy");
+			retVal = proxy;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Return the interceptor chain for the given method.
+	 * Static pointcuts are only evaluated the first time a method is invoked,
+	 * and again after the pointcuts or attribute registry of the config change.
+	 */
+	private InterceptorChain getInterceptorChain(Method method, AttributeRegistry attributeRegistry) {
+		List pointcuts = this.config.getMethodPointcuts();
+		if (pointcuts == null || pointcuts.size() == 0)
+			throw new AopConfigException("Must provide pointcuts");
+
+		PointcutChains chains = this.pointcutChains;
+		if (chains == null || !chains.isFor(pointcuts, attributeRegistry)) {
+			logger.debug("Pointcuts changed: discarding cached interceptor chains");
+			chains = new PointcutChains(pointcuts, attributeRegistry, new HashMap());
+			this.pointcutChains = chains;
+		}
+		InterceptorChain chain = (InterceptorChain) chains.chainMap.get(method);
+		if (chain == null) {
+			chain = chains.evaluate(method);
+			// Lost updates from concurrent invocations only mean evaluating again
+			Map newChainMap = new HashMap(chains.chainMap);
+			newChainMap.put(method, chain);
+			this.pointcutChains = new PointcutChains(chains.pointcuts, attributeRegistry, newChainMap);
+		}
+		return chain;
+	}
+
 	/**
 	 * Creates a new Proxy object for the given object, proxying
 	 * the given interface. Uses the thread context class loader.
@@ -190,6 +261,112 @@ public class AopProxy implements InvocationHandler {
 	}
 
 
+	/**
+	 * Pointcuts whose static part applies to each method, evaluated
+	 * for a snapshot of the pointcuts of a config.
+	 */
+	private static class PointcutChains {
+
+		private final MethodPointcut[] pointcuts;
+
+		private final AttributeRegistry attributeRegistry;
+
+		/** Method --> InterceptorChain */
+		private final Map chainMap;
+
+		private PointcutChains(List pointcuts, AttributeRegistry attributeRegistry, Map chainMap) {
+			this((MethodPointcut[]) pointcuts.toArray(new MethodPointcut[pointcuts.size()]), attributeRegistry, chainMap);
+		}
+
+		private PointcutChains(MethodPointcut[] pointcuts, AttributeRegistry attributeRegistry, Map chainMap) {
+			this.pointcuts = pointcuts;
+			this.attributeRegistry = attributeRegistry;
+			this.chainMap = chainMap;
+		}
+
+		/**
+		 * Return whether the chains were evaluated for exactly these pointcuts
+		 * and attribute registry.
+		 */
+		private boolean isFor(List pointcuts, AttributeRegistry attributeRegistry) {
+			if (attributeRegistry != this.attributeRegistry || pointcuts.size() != this.pointcuts.length)
+				return false;
+			int i = 0;
+			for (Iterator it = pointcuts.iterator(); it.hasNext(); i++) {
+				if (it.next() != this.pointcuts[i])
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Return the chain of pointcuts whose static part applies to the given method.
+		 */
+		private InterceptorChain evaluate(Method method) {
+			List chain = new ArrayList(this.pointcuts.length);
+			for (int i = 0; i < this.pointcuts.length; i++) {
+				MethodPointcut pc = this.pointcuts[i];
+				if (!(pc instanceof StaticMethodPointcut)) {
+					throw new AspectException("Unknown pointcut type: " + pc.getClass());
+				}
+				if (((StaticMethodPointcut) pc).applies(method, this.attributeRegistry)) {
+					chain.add(pc);
+				}
+			}
+			return new InterceptorChain((MethodPointcut[]) chain.toArray(new MethodPointcut[chain.size()]));
+		}
+	}
+
+
+	/**
+	 * The pointcuts applying to a method. If none of them is dynamic, the
+	 * interceptors are resolved once and shared by all invocations; if the
+	 * only one is an InvokerInterceptor, the target can be invoked directly.
+	 */
+	private static class InterceptorChain {
+
+		private final MethodPointcut[] pointcuts;
+
+		/** Unmodifiable list of interceptors, or null if there are dynamic pointcuts */
+		private final List interceptors;
+
+		/** The only interceptor if it is an InvokerInterceptor, else null */
+		private final InvokerInterceptor invoker;
+
+		private InterceptorChain(MethodPointcut[] pointcuts) {
+			this.pointcuts = pointcuts;
+			List interceptors = new ArrayList(pointcuts.length);
+			for (int i = 0; i < pointcuts.length && interceptors != null; i++) {
+				if (pointcuts[i] instanceof DynamicMethodPointcut) {
+					interceptors = null;
+				}
+				else {
+					interceptors.add(pointcuts[i].getInterceptor());
+				}
+			}
+			this.interceptors = (interceptors != null) ? Collections.unmodifiableList(interceptors) : null;
+			this.invoker = (interceptors != null && interceptors.size() == 1 && interceptors.get(0) instanceof InvokerInterceptor) ?
+					(InvokerInterceptor) interceptors.get(0) : null;
+		}
+
+		/**
+		 * Return the interceptors to invoke for the given arguments,
+		 * checking the dynamic pointcuts against them.
+		 */
+		private List getInterceptors(Method method, Object[] args, AttributeRegistry attributeRegistry) {
+			List interceptors = new ArrayList(this.pointcuts.length);
+			for (int i = 0; i < this.pointcuts.length; i++) {
+				MethodPointcut pc = this.pointcuts[i];
+				if (!(pc instanceof DynamicMethodPointcut) ||
+						((DynamicMethodPointcut) pc).applies(method, args, attributeRegistry)) {
+					interceptors.add(pc.getInterceptor());
+				}
+			}
+			return interceptors;
+		}
+	}
+
+
 	/**
 	 * Putting CGLIB proxy creation in an inner class allows to avoid an AopProxy
 	 * runtime dependency on CGLIB --> J2SE proxies work without cglib.jar then.
@@ -7,9 +7,9 @@ package org.springframework.aop.framework;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.aopalliance.intercept.AspectException;
@@ -77,9 +77,8 @@ public class MethodInvocationImpl implements MethodInvocation {
 		this.method = m;
 		this.arguments = arguments;
 		
-		// TODO make more efficient. Could just hold indices in an int array
-		// Could cache static pointcut decisions
-		this.interceptors = new LinkedList();
+		// AopProxy caches static pointcut decisions and uses the other constructor
+		this.interceptors = new ArrayList(pointcuts.size());
 		for (Iterator iter = pointcuts.iterator(); iter.hasNext();) {
 			Object pc = iter.next();
 			if (pc instanceof DynamicMethodPointcut) {
@@ -101,6 +100,24 @@ public class MethodInvocationImpl implements MethodInvocation {
 		
 		this.attributeRegistry = attributeRegistry;
 	}
+
+	/**
+	 * Create a new invocation with the given interceptors, for which
+	 * all pointcuts have already been evaluated.
+	 * @param interceptors the MethodInterceptors to invoke, in order.
+	 * The list is used as is, not copied.
+	 */
+	MethodInvocationImpl(Object proxy, Object target,
+					Class targetInterface, Method m, Object[] arguments,
+					AttributeRegistry attributeRegistry, List interceptors) {
+		this.proxy = proxy;
+		this.targetInterface = targetInterface;
+		this.target = target;
+		this.method = m;
+		this.arguments = arguments;
+		this.interceptors = interceptors;
+		this.attributeRegistry = attributeRegistry;
+	}
 	
 	
 	/**
@@ -4,6 +4,7 @@ import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.util.KeyedResponseTimeMonitor;
 import org.springframework.util.StopWatch;
 
 /**
@@ -11,7 +12,8 @@ import org.springframework.util.StopWatch;
  * This interceptor has no effect on the intercepted method call.
  *
  * <p>Presently logs information using Commons Logging, at "info" level.
- * Could make this much more sophisticated, storing information etc.
+ * If a KeyedResponseTimeMonitor is set, also records the response times
+ * there, keyed by class and method name.
  *
  * @author Rod Johnson
  * @author Dmitriy Kopylenko
@@ -21,6 +23,22 @@ public class PerformanceMonitorInterceptor implements MethodInterceptor {
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
+	private KeyedResponseTimeMonitor responseTimeMonitor;
+
+	/**
+	 * Set a monitor to record the response times of the intercepted methods in.
+	 */
+	public void setResponseTimeMonitor(KeyedResponseTimeMonitor responseTimeMonitor) {
+		this.responseTimeMonitor = responseTimeMonitor;
+	}
+
+	/**
+	 * Return the monitor the response times are recorded in, if any.
+	 */
+	public KeyedResponseTimeMonitor getResponseTimeMonitor() {
+		return responseTimeMonitor;
+	}
+
 	public Object invoke(MethodInvocation invocation) throws Throwable {
 		String name = invocation.getMethod().getDeclaringClass().getName() + "." + invocation.getMethod().getName();
 		logger.debug("Begin performance monitoring of method '" + name + "'");
@@ -30,6 +48,10 @@ public class PerformanceMonitorInterceptor implements MethodInterceptor {
 		Object rval = invocation.proceed();
 		sw.stop();
 
+		if (this.responseTimeMonitor != null) {
+			this.responseTimeMonitor.recordResponseTime(name, sw.getTotalTime());
+		}
+
 		logger.info(sw.shortSummary());
 		logger.debug("End performance monitoring of method '" + name + "'");
 
@@ -125,7 +125,7 @@ public class BeanWrapperImpl implements BeanWrapper {
 	/** Should we propagate events to listeners? */
 	private boolean eventPropagationEnabled = false;
 
-	/* Map with cached nested BeanWrappers */
+	/* Map with cached nested BeanWrappers: nested property name --> BeanWrapperImpl */
 	private Map nestedBeanWrappers;
 
 	/** Map with custom PropertyEditor instances */
@@ -376,8 +376,8 @@ public class BeanWrapperImpl implements BeanWrapper {
 	 * @return last component of the path (the property on the target bean)
 	 */
 	private String getFinalPath(String nestedPath) {
-		String finalPath = nestedPath.substring(nestedPath.lastIndexOf(NESTED_PROPERTY_SEPARATOR) + 1);
-		;
+		String[] components = this.cachedIntrospectionResults.getPropertyPath(nestedPath);
+		String finalPath = components[components.length - 1];
 		if (logger.isDebugEnabled()) {
 			logger.debug("Final path in nested property value '" + nestedPath + "' is '" + finalPath + "'");
 		}
@@ -385,28 +385,27 @@ public class BeanWrapperImpl implements BeanWrapper {
 	}
 
 	/**
-	 * Recursively navigate to return a BeanWrapper for the nested path.
+	 * Navigate to return a BeanWrapper for the nested path.
+	 * The path is only parsed the first time it is used with the wrapped class.
 	 * @param path property path, which may be nested
 	 * @return a BeanWrapper for the target bean
 	 */
 	private BeanWrapperImpl getBeanWrapperForNestedProperty(String path) {
-		int pos = path.indexOf(NESTED_PROPERTY_SEPARATOR);
-		// Handle nested properties recursively
-		if (pos > -1) {
-			String nestedProperty = path.substring(0, pos);
-			String nestedPath = path.substring(pos + 1);
-			logger.debug("Navigating to property path '" + nestedPath + "' of nested property '" + nestedProperty + "'");
-			BeanWrapperImpl nestedBw = getNestedBeanWrapper(nestedProperty);
-			return nestedBw.getBeanWrapperForNestedProperty(nestedPath);
-		}
-		else {
-			return this;
+		String[] components = this.cachedIntrospectionResults.getPropertyPath(path);
+		BeanWrapperImpl bw = this;
+		for (int i = 0; i < components.length - 1; i++) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Navigating to nested property '" + components[i] + "' of property path '" + path + "'");
+			}
+			bw = bw.getNestedBeanWrapper(components[i]);
 		}
+		return bw;
 	}
 
 	/**
 	 * Retrieve a BeanWrapper for the given nested property.
-	 * Create a new one if not found in the cache.
+	 * Create a new one if not found in the cache, or if the cached one
+	 * wraps a different object than the current value of the property.
 	 * <p>Note: Caching nested BeanWrappers is necessary now,
 	 * to keep registered custom editors for nested properties.
 	 * @param nestedProperty property to create the BeanWrapper for
@@ -422,8 +421,8 @@ public class BeanWrapperImpl implements BeanWrapper {
 			throw new NullValueInNestedPathException(getWrappedClass(), nestedProperty);
 		}
 		// lookup cached sub-BeanWrapper, create new one if not found
-		BeanWrapperImpl nestedBw = (BeanWrapperImpl) this.nestedBeanWrappers.get(propertyValue);
-		if (nestedBw == null) {
+		BeanWrapperImpl nestedBw = (BeanWrapperImpl) this.nestedBeanWrappers.get(nestedProperty);
+		if (nestedBw == null || nestedBw.getWrappedInstance() != propertyValue) {
 			logger.debug("Creating new nested BeanWrapper for property '" + nestedProperty + "'");
 			nestedBw = new BeanWrapperImpl(propertyValue, this.nestedPath + nestedProperty + NESTED_PROPERTY_SEPARATOR);
 			// inherit all type-specific PropertyEditors
@@ -437,9 +436,9 @@ public class BeanWrapperImpl implements BeanWrapper {
 					}
 				}
 			}
-			this.nestedBeanWrappers.put(propertyValue, nestedBw);
+			this.nestedBeanWrappers.put(nestedProperty, nestedBw);
 		}
-		else {
+		else if (logger.isDebugEnabled()) {
 			logger.debug("Using cached nested BeanWrapper for property '" + nestedProperty + "'");
 		}
 		return nestedBw;
@@ -468,13 +467,16 @@ public class BeanWrapperImpl implements BeanWrapper {
 			}
 		}
 
-		if (!isWritableProperty(pv.getName())) {
+		CachedIntrospectionResults.PropertyAccessor accessor =
+				this.cachedIntrospectionResults.getPropertyAccessor(pv.getName());
+		if (accessor == null || accessor.getWriteMethod() == null) {
 			throw new NotWritablePropertyException(pv.getName(), getWrappedClass());
 		}
 
-		PropertyDescriptor pd = getPropertyDescriptor(pv.getName());
-		Method writeMethod = pd.getWriteMethod();
-		Method readMethod = pd.getReadMethod();
+		PropertyDescriptor pd = accessor.getPropertyDescriptor();
+		Class propertyType = accessor.getPropertyType();
+		Method writeMethod = accessor.getWriteMethod();
+		Method readMethod = accessor.getReadMethod();
 		Object oldValue = null;	// May stay null if it's not a readable property
 		PropertyChangeEvent propertyChangeEvent = null;
 
@@ -496,7 +498,7 @@ public class BeanWrapperImpl implements BeanWrapper {
 
 			// Old value may still be null 类型转换
 			propertyChangeEvent = createPropertyChangeEventWithTypeConversionIfNecessary(
-					object, pv.getName(), oldValue, pv.getValue(), pd.getPropertyType());
+					object, pv.getName(), oldValue, pv.getValue(), propertyType);
 
 			// May throw PropertyVetoException: if this happens the PropertyChangeSupport
 			// class fires a reversion event, and we jump out of this method, meaning
@@ -505,8 +507,8 @@ public class BeanWrapperImpl implements BeanWrapper {
 				vetoableChangeSupport.fireVetoableChange(propertyChangeEvent);
 			}
 
-			if (pd.getPropertyType().isPrimitive() && (pv.getValue() == null || "".equals(pv.getValue()))) {
-				throw new IllegalArgumentException("Invalid value [" + pv.getValue() + "] for property [" + pd.getName() + "] of primitive type [" + pd.getPropertyType() + "]");
+			if (propertyType.isPrimitive() && (pv.getValue() == null || "".equals(pv.getValue()))) {
+				throw new IllegalArgumentException("Invalid value [" + pv.getValue() + "] for property [" + pd.getName() + "] of primitive type [" + propertyType + "]");
 			}
 
 			// Make the change
@@ -526,14 +528,14 @@ public class BeanWrapperImpl implements BeanWrapper {
 			if (ex.getTargetException() instanceof PropertyVetoException)
 				throw (PropertyVetoException) ex.getTargetException();
 			if (ex.getTargetException() instanceof ClassCastException)
-				throw new TypeMismatchException(propertyChangeEvent, pd.getPropertyType(), ex.getTargetException());
+				throw new TypeMismatchException(propertyChangeEvent, propertyType, ex.getTargetException());
 			throw new MethodInvocationException(ex.getTargetException(), propertyChangeEvent);
 		}
 		catch (IllegalAccessException ex) {
 			throw new FatalBeanException("Illegal attempt to set property [" + pv + "] threw exception", ex);
 		}
 		catch (IllegalArgumentException ex) {
-			throw new TypeMismatchException(propertyChangeEvent, pd.getPropertyType(), ex);
+			throw new TypeMismatchException(propertyChangeEvent, propertyType, ex);
 		}
 	}
 
@@ -604,8 +606,12 @@ public class BeanWrapperImpl implements BeanWrapper {
 			return nestedBw.getPropertyValue(getFinalPath(propertyName));
 		}
 
-		PropertyDescriptor pd = getPropertyDescriptor(propertyName);
-		Method readMethod = pd.getReadMethod();
+		CachedIntrospectionResults.PropertyAccessor accessor =
+				this.cachedIntrospectionResults.getPropertyAccessor(propertyName);
+		if (accessor == null) {
+			throw new FatalBeanException("No property [" + propertyName + "] in class [" + getWrappedClass() + "]", null);
+		}
+		Method readMethod = accessor.getReadMethod();
 		if (readMethod == null) {
 			throw new FatalBeanException("Cannot get scalar property [" + propertyName + "]: not readable", null);
 		}
@@ -656,7 +662,7 @@ public class BeanWrapperImpl implements BeanWrapper {
 	 * @throws BeansException if property descriptors cannot be obtained
 	 */
 	public PropertyDescriptor[] getProperties() throws BeansException {
-		return this.cachedIntrospectionResults.getBeanInfo().getPropertyDescriptors();
+		return this.cachedIntrospectionResults.getPropertyDescriptors();
 	}
 
 	public PropertyDescriptor getPropertyDescriptor(String propertyName) throws BeansException {
@@ -711,7 +717,7 @@ public class BeanWrapperImpl implements BeanWrapper {
 	}
 
 	public PropertyDescriptor[] getPropertyDescriptors() {
-		return cachedIntrospectionResults.getBeanInfo().getPropertyDescriptors();
+		return this.cachedIntrospectionResults.getPropertyDescriptors();
 	}
 
 	//---------------------------------------------------------------------
@@ -5,8 +5,14 @@ import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.MethodDescriptor;
 import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -25,6 +31,12 @@ import org.apache.commons.logging.LogFactory;
  * implements the factory design pattern, using a private constructor
  * and a public static forClass() method to obtain instances.
  *
+ * <p>The cache is keyed weakly by class. Results for classes that were not
+ * loaded by the class loader of this class or one of its parents, such as
+ * the classes of a web application, are only softly referenced, so that
+ * the cache does not keep such classes and their class loaders alive
+ * after they have been redeployed.
+ *
  * @author Rod Johnson
  * @since 05 May 2001
  * @version $Revision: 1.1.1.1 $
@@ -34,18 +46,25 @@ final class CachedIntrospectionResults {
 	private static final Log logger = LogFactory.getLog(CachedIntrospectionResults.class);
 
 	/**
-	 * Map keyed by class containing CachedIntrospectionResults or ReflectionException
+	 * Map keyed by class containing CachedIntrospectionResults or BeansException,
+	 * possibly wrapped in a SoftReference. Guarded by synchronizing on the map itself.
 	 */
 	// 放了个map
-	private static Map $cache = new HashMap();
+	private static final Map $cache = new WeakHashMap();
 
 	/**
-	 * We might use this from the EJB tier, so we don't want to use
-	 * synchronization. Object references are atomic, so we
-	 * can live with doing the occasional unnecessary lookup at startup only.
+	 * The lock is only held for the lookup itself: introspection happens
+	 * outside of it, so two threads may occasionally introspect the same
+	 * class at the same time, and the last result is kept.
 	 */
 	protected static CachedIntrospectionResults forClass(Class clazz) throws BeansException {
-		Object o = $cache.get(clazz);
+		Object o;
+		synchronized ($cache) {
+			o = $cache.get(clazz);
+		}
+		if (o instanceof Reference) {
+			o = ((Reference) o).get();
+		}
 		if (o == null) {
 			try {
 				o = new CachedIntrospectionResults(clazz);
@@ -53,7 +72,9 @@ final class CachedIntrospectionResults {
 			catch (BeansException ex) {
 				o = ex;
 			}
-			$cache.put(clazz, o);
+			synchronized ($cache) {
+				$cache.put(clazz, isCacheSafe(clazz) ? o : new SoftReference(o));
+			}
 		}
 		else {
 			logger.debug("Using cached introspection results for class " + clazz);
@@ -67,14 +88,47 @@ final class CachedIntrospectionResults {
 		return (CachedIntrospectionResults) o;
 	}
 
+	/**
+	 * Return whether the given class was loaded by the class loader of this class
+	 * or one of its parents, so that caching its results strongly cannot keep
+	 * a class loader alive longer than this class.
+	 */
+	private static boolean isCacheSafe(Class clazz) {
+		ClassLoader target = clazz.getClassLoader();
+		if (target == null) {
+			return true;
+		}
+		for (ClassLoader cl = CachedIntrospectionResults.class.getClassLoader(); cl != null; cl = cl.getParent()) {
+			if (cl == target) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private BeanInfo beanInfo;
 
-	/** Property descriptors keyed by property name */
-	private Map propertyDescriptorMap;
+	/** Property descriptors, in the order returned by the BeanInfo */
+	private PropertyDescriptor[] propertyDescriptors;
 
-	/** Property descriptors keyed by property name */
+	/** Property accessors keyed by property name */
+	private Map propertyAccessorMap;
+
+	/** Method descriptors keyed by method name */
 	private Map methodDescriptorMap;
 
+	/**
+	 * Parsed property paths: path --> String[] components.
+	 * Replaced rather than modified, so that it can be read without locking.
+	 */
+	private volatile Map propertyPathMap = new HashMap();
+
+	/**
+	 * Maximum number of parsed property paths cached per class. Paths often come
+	 * from request parameters, so the cache must not grow without bounds.
+	 */
+	private static final int MAX_CACHED_PROPERTY_PATHS = 1024;
+
 	/**
 	 * Create new CachedIntrospectionResults instance fot the given class.
 	 */
@@ -84,13 +138,14 @@ final class CachedIntrospectionResults {
 			beanInfo = Introspector.getBeanInfo(clazz);
 
 			logger.debug("Caching PropertyDescriptors for class '" + clazz.getName() + "'");
-			propertyDescriptorMap = new HashMap();
+			propertyAccessorMap = new HashMap();
 			// This call is slow so we do it once
 			PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
 			for (int i = 0; i < pds.length; i++) {
 				logger.debug("Found property [" + pds[i].getName() + "] of type [" + pds[i].getPropertyType() + "]; editor=[" + pds[i].getPropertyEditorClass() + "]");
-				propertyDescriptorMap.put(pds[i].getName(), pds[i]);
+				propertyAccessorMap.put(pds[i].getName(), new PropertyAccessor(pds[i]));
 			}
+			propertyDescriptors = pds;
 
 			logger.debug("Caching MethodDescriptors for class '" + clazz.getName() + "'");
 			methodDescriptorMap = new HashMap();
@@ -114,11 +169,58 @@ final class CachedIntrospectionResults {
 		return beanInfo.getBeanDescriptor().getBeanClass();
 	}
 
+	/**
+	 * Return the descriptors of all properties. The array is shared,
+	 * so callers must not modify it.
+	 */
+	protected PropertyDescriptor[] getPropertyDescriptors() {
+		return propertyDescriptors;
+	}
+
 	protected PropertyDescriptor getPropertyDescriptor(String propertyName) throws BeansException {
-		PropertyDescriptor pd = (PropertyDescriptor) propertyDescriptorMap.get(propertyName);
-		if (pd == null)
+		PropertyAccessor accessor = getPropertyAccessor(propertyName);
+		if (accessor == null)
 			throw new FatalBeanException("No property [" + propertyName + "] in class [" + getBeanClass() + "]", null);
-		return pd;
+		return accessor.getPropertyDescriptor();
+	}
+
+	/**
+	 * Return the accessor for the given property, or null if there is no such property.
+	 */
+	protected PropertyAccessor getPropertyAccessor(String propertyName) {
+		return (PropertyAccessor) propertyAccessorMap.get(propertyName);
+	}
+
+	/**
+	 * Return the components of the given property path, split at the
+	 * nested property separator. The array is shared, so callers must not
+	 * modify it.
+	 */
+	protected String[] getPropertyPath(String path) {
+		String[] components = (String[]) this.propertyPathMap.get(path);
+		if (components == null) {
+			components = parsePropertyPath(path);
+			synchronized (this) {
+				if (this.propertyPathMap.size() < MAX_CACHED_PROPERTY_PATHS) {
+					Map newPropertyPathMap = new HashMap(this.propertyPathMap);
+					newPropertyPathMap.put(path, components);
+					this.propertyPathMap = newPropertyPathMap;
+				}
+			}
+		}
+		return components;
+	}
+
+	private static String[] parsePropertyPath(String path) {
+		List components = new ArrayList();
+		int start = 0;
+		int pos;
+		while ((pos = path.indexOf(BeanWrapper.NESTED_PROPERTY_SEPARATOR, start)) != -1) {
+			components.add(path.substring(start, pos));
+			start = pos + BeanWrapper.NESTED_PROPERTY_SEPARATOR.length();
+		}
+		components.add(path.substring(start));
+		return (String[]) components.toArray(new String[components.size()]);
 	}
 
 	protected MethodDescriptor getMethodDescriptor(String methodName) throws BeansException {
@@ -128,4 +230,45 @@ final class CachedIntrospectionResults {
 		return md;
 	}
 
+
+	/**
+	 * The read and write methods and type of a property, looked up once
+	 * from its PropertyDescriptor, so that they are ready to be invoked.
+	 */
+	static final class PropertyAccessor {
+
+		private final PropertyDescriptor propertyDescriptor;
+
+		private final Method readMethod;
+
+		private final Method writeMethod;
+
+		private final Class propertyType;
+
+		private PropertyAccessor(PropertyDescriptor propertyDescriptor) {
+			this.propertyDescriptor = propertyDescriptor;
+			this.readMethod = propertyDescriptor.getReadMethod();
+			this.writeMethod = propertyDescriptor.getWriteMethod();
+			this.propertyType = propertyDescriptor.getPropertyType();
+		}
+
+		public PropertyDescriptor getPropertyDescriptor() {
+			return propertyDescriptor;
+		}
+
+		/** Return the read method, or null if the property is not readable */
+		public Method getReadMethod() {
+			return readMethod;
+		}
+
+		/** Return the write method, or null if the property is not writable */
+		public Method getWriteMethod() {
+			return writeMethod;
+		}
+
+		public Class getPropertyType() {
+			return propertyType;
+		}
+	}
+
 }
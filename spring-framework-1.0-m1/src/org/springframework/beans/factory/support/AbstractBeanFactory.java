@@ -76,8 +76,27 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 	/** Parent bean factory, for bean inheritance support */
 	private BeanFactory parentBeanFactory;
 
-	/** Cache of singletons: bean name --> bean instance */
-	private Map singletonCache = new HashMap();
+	/**
+	 * Cache of singletons: bean name --> bean instance.
+	 * Never modified once published: it is replaced by a modified copy,
+	 * so that it can be read without locking.
+	 */
+	private volatile Map singletonCache = new HashMap();
+
+	/** Lock held while creating singletons, calling FactoryBeans and changing the singleton cache */
+	private final Object singletonCreationLock = new Object();
+
+	/**
+	 * Cache of merged bean definitions: bean name --> RootBeanDefinition.
+	 * Like the singleton cache, replaced rather than modified.
+	 */
+	private volatile Map mergedBeanDefinitionCache = new HashMap();
+
+	/** Incremented whenever the merged bean definitions are invalidated */
+	private int mergedBeanDefinitionGeneration;
+
+	/** Lock held while changing the merged bean definition cache */
+	private final Object mergedBeanDefinitionLock = new Object();
 
 	/** Map from alias to canonical bean name */
 	private Map aliasMap = new HashMap();
@@ -222,19 +241,18 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 	//---------------------------------------------------------------------
 
 	/**
-	 * Get a singleton instance of this bean name. Note that this method shouldn't
-	 * be called too often: Callers should keep hold of instances. Hence, the whole
-	 * method is synchronized here.
-	 * 获取此bean名称的一个singleton实例。请注意，不应经常调用此方法：调用方应保留实例。因此，整个方法在这里是同步的。
-	 * TODO: There probably isn't any need for this to be synchronized, at least not if we pre-instantiate singletons.
-	 * TODO:这可能没有任何同步的必要，至少如果我们预先实例化singleton的话就没有了。
+	 * Get a singleton instance of this bean name. An instance that has already
+	 * been created is returned without locking; creation of a new instance is
+	 * serialized by the singleton creation lock, so that every caller gets the
+	 * same instance and circular references are resolved within one thread.
+	 * 获取此bean名称的一个singleton实例。已创建的实例无需加锁即可返回；新实例的创建由单例创建锁串行化。
 	 * @param pname name that may include factory dereference prefix 可能包括工厂取消引用前缀的名称
 	 * @param newlyCreatedBeans cache with newly created beans (name, instance) 使用新创建的bean（名称、实例）缓存
 	 * if triggered by the creation of another bean, or null else
 	 * (necessary to resolve circular references)
 	 *  如果由另一个bean的创建触发，或者为null else（解析循环引用所必需）
 	 */
-	private final synchronized Object getSharedInstance(String pname, Map newlyCreatedBeans) throws BeansException {
+	private final Object getSharedInstance(String pname, Map newlyCreatedBeans) throws BeansException {
 		// Get rid of the dereference prefix if there is one
 		// 获取标准beanName
 		String name = transformedBeanName(pname);
@@ -242,11 +260,19 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 		// bean 缓存 singletonCache 中获取单例bean
 		Object beanInstance = this.singletonCache.get(name);
 		if (beanInstance == null) {
-			logger.info("Creating shared instance of singleton bean '" + name + "'");
-			// 没有的话建一个bean
-			beanInstance = createBean(name, newlyCreatedBeans);
-			// 放进缓存里
-			this.singletonCache.put(name, beanInstance);
+			synchronized (this.singletonCreationLock) {
+				// Check again: another thread may have created it meanwhile
+				beanInstance = this.singletonCache.get(name);
+				if (beanInstance == null) {
+					logger.info("Creating shared instance of singleton bean '" + name + "'");
+					// 没有的话建一个bean
+					beanInstance = createBean(name, newlyCreatedBeans);
+					// 放进缓存里
+					Map newSingletonCache = new HashMap(this.singletonCache);
+					newSingletonCache.put(name, beanInstance);
+					this.singletonCache = newSingletonCache;
+				}
+			}
 		}
 		else {
 			if (logger.isDebugEnabled())
@@ -273,12 +299,17 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 				// 从工厂里拿一个新的bean出来
 				FactoryBean factory = (FactoryBean) beanInstance;
 				logger.debug("Bean with name '" + name + "' is a factory bean");
-				beanInstance = factory.getObject();
-
-				// Set pass-through properties 传递的参数
-				if (factory.getPropertyValues() != null) {
-					logger.debug("Applying pass-through properties to bean with name '" + name + "'");
-					new BeanWrapperImpl(beanInstance).setPropertyValues(factory.getPropertyValues());
+				// Call factories from one thread at a time: they need not be thread-safe.
+				// Uses the singleton creation lock rather than the factory's monitor,
+				// as getObject may create singletons: a second lock could deadlock.
+				synchronized (this.singletonCreationLock) {
+					beanInstance = factory.getObject();
+
+					// Set pass-through properties 传递的参数
+					if (factory.getPropertyValues() != null) {
+						logger.debug("Applying pass-through properties to bean with name '" + name + "'");
+						new BeanWrapperImpl(beanInstance).setPropertyValues(factory.getPropertyValues());
+					}
 				}
 				// Initialization is really up to factory
 				//invokeInitializerIfNecessary(beanInstance);
@@ -347,6 +378,17 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 		if (pvs == null)
 			return;
 
+		if (!requiresResolution(pvs)) {
+			// Only literal values: nothing to resolve, so no need for a copy
+			try {
+				bw.setPropertyValues(pvs);
+			}
+			catch (FatalBeanException ex) {
+				throw new FatalBeanException("Error setting property on bean [" + name + "]", ex);
+			}
+			return;
+		}
+
 		MutablePropertyValues deepCopy = new MutablePropertyValues(pvs);
 		PropertyValue[] pvals = deepCopy.getPropertyValues();
 		
@@ -366,6 +408,21 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 		}
 	}
 
+	/**
+	 * Return whether any of the given property values is a bean reference
+	 * or a managed collection, which has to be resolved for each new instance.
+	 */
+	private boolean requiresResolution(PropertyValues pvs) {
+		PropertyValue[] pvals = pvs.getPropertyValues();
+		for (int i = 0; i < pvals.length; i++) {
+			Object value = pvals[i].getValue();
+			if (value instanceof RuntimeBeanReference || value instanceof ManagedList || value instanceof ManagedMap) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Given a PropertyValue, return a value, resolving any references to other
 	 * beans in the factory if necessary. The value could be:
@@ -540,9 +597,71 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 	/**
 	 * Make a RootBeanDefinition, even by traversing parent if the parameter is a child definition.
 	 * 如果参数是子定义，即使通过遍历父定义也可以进行RootBeanDefinition。
+	 * <p>Merged definitions are cached until clearMergedBeanDefinitionCache is called,
+	 * so the returned definition is shared and must not be modified.
+	 * 合并后的定义会被缓存，因此返回的定义是共享的，不得修改。
+	 * <p>Definitions depending on the parent factory are not cached here,
+	 * as this factory isn't told about changes there.
+	 * 依赖父工厂的定义不会在此缓存，因为此工厂不会得知父工厂中的更改。
 	 * @return a merged RootBeanDefinition with overriden properties
+	 * @see #clearMergedBeanDefinitionCache
 	 */
 	protected final RootBeanDefinition getMergedBeanDefinition(String name) throws NoSuchBeanDefinitionException {
+		RootBeanDefinition rbd = (RootBeanDefinition) this.mergedBeanDefinitionCache.get(name);
+		if (rbd == null) {
+			int generation;
+			synchronized (this.mergedBeanDefinitionLock) {
+				generation = this.mergedBeanDefinitionGeneration;
+			}
+			rbd = mergeBeanDefinition(name);
+			synchronized (this.mergedBeanDefinitionLock) {
+				// Don't cache a definition merged from definitions changed meanwhile
+				if (generation == this.mergedBeanDefinitionGeneration && isDefinedLocally(name)) {
+					Map newCache = new HashMap(this.mergedBeanDefinitionCache);
+					newCache.put(name, rbd);
+					this.mergedBeanDefinitionCache = newCache;
+				}
+			}
+		}
+		return rbd;
+	}
+
+	/**
+	 * Discard all cached merged bean definitions. To be called by subclasses
+	 * whenever a bean definition is registered or changed, as the merged
+	 * definitions of its children depend on it as well.
+	 */
+	protected final void clearMergedBeanDefinitionCache() {
+		synchronized (this.mergedBeanDefinitionLock) {
+			this.mergedBeanDefinitionGeneration++;
+			this.mergedBeanDefinitionCache = new HashMap();
+		}
+	}
+
+	/**
+	 * Determine whether the given bean and all of its ancestors
+	 * are defined in this factory rather than in the parent factory.
+	 */
+	private boolean isDefinedLocally(String name) {
+		while (true) {
+			AbstractBeanDefinition bd;
+			try {
+				bd = getBeanDefinition(name);
+			}
+			catch (NoSuchBeanDefinitionException ex) {
+				return false;
+			}
+			if (!(bd instanceof ChildBeanDefinition)) {
+				return true;
+			}
+			name = ((ChildBeanDefinition) bd).getParentName();
+		}
+	}
+
+	/**
+	 * Merge the definition of the given bean with those of its ancestors.
+	 */
+	private RootBeanDefinition mergeBeanDefinition(String name) throws NoSuchBeanDefinitionException {
 		try {
 			AbstractBeanDefinition bd = getBeanDefinition(name);
 			if (bd instanceof RootBeanDefinition) {
@@ -602,10 +721,16 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 	public final void destroySingletons() {
 		logger.info("Destroying singletons in factory {" + this + "}");
 
+		Map singletons;
+		synchronized (this.singletonCreationLock) {
+			singletons = this.singletonCache;
+			this.singletonCache = new HashMap();
+		}
+
 		// 遍历单例对象
-		for (Iterator it = this.singletonCache.keySet().iterator(); it.hasNext();) {
+		for (Iterator it = singletons.keySet().iterator(); it.hasNext();) {
 			String name = (String) it.next();
-			Object bean = this.singletonCache.get(name);
+			Object bean = singletons.get(name);
 			RootBeanDefinition bd = getMergedBeanDefinition(name);
 
 			if (bean instanceof DisposableBean) {
@@ -629,8 +754,6 @@ public abstract class AbstractBeanFactory implements HierarchicalBeanFactory {
 				}
 			}
 		}
-		
-		this.singletonCache.clear();
 	}
 
 
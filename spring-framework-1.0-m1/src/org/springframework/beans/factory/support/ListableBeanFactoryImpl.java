@@ -181,6 +181,7 @@ public class ListableBeanFactoryImpl extends AbstractBeanFactory implements List
 	 */
 	public final void registerBeanDefinition(String beanName, AbstractBeanDefinition beanDefinition) {
 		this.beanDefinitionMap.put(beanName, beanDefinition);
+		clearMergedBeanDefinitionCache();
 	}
 
 	/**
@@ -381,6 +382,7 @@ public class ListableBeanFactoryImpl extends AbstractBeanFactory implements List
 		// 所谓注册就是配置文件中的bean成员变量配置信息增强到beanDefinitionMap的bean定义中
 		MutablePropertyValues pvs = (MutablePropertyValues) bd.getPropertyValues();
 		pvs.addPropertyValue(pv);
+		clearMergedBeanDefinitionCache();
 	}
 
 
@@ -65,6 +65,7 @@ import org.springframework.util.StringUtils;
  * @see #getBeanFactory
  * @see #OPTIONS_BEAN_NAME
  * @see #MESSAGE_SOURCE_BEAN_NAME
+ * @see #APPLICATION_EVENT_MULTICASTER_BEAN_NAME
  */
 public abstract class AbstractApplicationContext implements ApplicationContext {
 
@@ -82,6 +83,16 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
 	 */
 	public static final String MESSAGE_SOURCE_BEAN_NAME = "messageSource";
 
+	/**
+	 * Name of the ApplicationEventMulticaster bean in the factory.
+	 * Only a bean defined in this context itself is used, not one of a parent.
+	 * If none is supplied, a default ApplicationEventMulticasterImpl is used,
+	 * which notifies listeners in the thread publishing the event.
+	 * @see ApplicationEventMulticaster
+	 * @see AsyncApplicationEventMulticaster
+	 */
+	public static final String APPLICATION_EVENT_MULTICASTER_BEAN_NAME = "applicationEventMulticaster";
+
 
 	//---------------------------------------------------------------------
 	// Instance data
@@ -106,15 +117,15 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
 	private MessageSource messageSource;
 
 	/**
-	 * Helper class used in event publishing.
-	 * TODO: This could be parameterized as a JavaBean (with a distinguished name
-	 * specified), enabling a different thread usage policy for event publication.
-	 * 事件发布中使用的帮助程序类。
-	 *
-	 * TODO:这可以参数化为JavaBean（指定了可分辨名称），从而为事件发布启用不同的线程使用策略。
+	 * Helper class used in event publishing. Can be defined as a bean named
+	 * "applicationEventMulticaster", e.g. for a different thread usage policy.
+	 * 事件发布中使用的帮助程序类。可以定义为名为"applicationEventMulticaster"的bean，例如用于不同的线程使用策略。
 	 */
 	private ApplicationEventMulticaster eventMulticaster = new ApplicationEventMulticasterImpl();
 
+	/** Whether the event multicaster is a bean of this context */
+	private boolean eventMulticasterIsBean = false;
+
 	/**
 	 * Set of ApplicationContextAware objects that have already received the context
 	 * reference, to be able to avoid double initialization of managed objects.
@@ -234,6 +245,10 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
 		// messagekey Local + "." + code
 		initMessageSource();
 
+		// initialize event multicaster for this context
+		// 初始化事件广播器
+		initEventMulticaster();
+
 		// initialize other special beans in specific context subclasses
 		// 初始化其他特殊的beans,在特殊的上下文子类中，
 		// 高版本整合tomcat。
@@ -314,6 +329,30 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
 		}
 	}
 
+	/**
+	 * Initialize the event multicaster.
+	 * 初始化事件广播器
+	 * Keep the default one if none defined in this context.
+	 */
+	private void initEventMulticaster() {
+		// Only use a multicaster defined in this context, not one of the parent:
+		// events are passed on to the parent anyway, and the parent's listeners
+		// must not receive them twice.
+		if (Arrays.asList(getBeanDefinitionNames()).contains(APPLICATION_EVENT_MULTICASTER_BEAN_NAME)) {
+			this.eventMulticaster = (ApplicationEventMulticaster) getBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME);
+			this.eventMulticasterIsBean = true;
+			logger.info("Using ApplicationEventMulticaster [" + this.eventMulticaster + "]");
+		}
+		else {
+			if (this.eventMulticasterIsBean) {
+				// defined before reloading, but not anymore
+				this.eventMulticaster = new ApplicationEventMulticasterImpl();
+				this.eventMulticasterIsBean = false;
+			}
+			logger.info("No ApplicationEventMulticaster found for [" + getDisplayName() + "]: using default");
+		}
+	}
+
 	/**
 	 * Invoke the setApplicationContext() callback on all objects
 	 * in the context. This involves instantiating the objects.
@@ -368,8 +407,11 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
 		logger.debug("Found " + listeners.size() + " listeners in bean factory");
 		for (int i = 0; i < listeners.size(); i++) {
 			ApplicationListener listener = (ApplicationListener) listeners.get(i);
-			addListener(listener);
-			logger.info("Bean listener added: [" + listener + "]");
+			// the multicaster is a listener itself
+			if (listener != this.eventMulticaster) {
+				addListener(listener);
+				logger.info("Bean listener added: [" + listener + "]");
+			}
 		}
 	}
 
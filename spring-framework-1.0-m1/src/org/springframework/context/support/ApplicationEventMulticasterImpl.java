@@ -5,10 +5,6 @@
  
 package org.springframework.context.support;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
-
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventMulticaster;
 import org.springframework.context.ApplicationListener;
@@ -20,47 +16,92 @@ import org.springframework.context.ApplicationListener;
  * ApplicationEventMulticaster的具体实现
  * 不允许同一侦听器的多个实例。
  *
- * <p>Note that this class doesn't try to do anything clever to ensure thread
- * safety if listeners are added or removed at runtime. A technique such as
- * Copy-on-Write (Lea:137) could be used to ensure this, but the assumption in
- * this version of this framework is that listeners will be added at application
- * configuration time and not added or removed as the application runs.
- * 请注意，如果在运行时添加或删除侦听器，这个类不会试图做任何巧妙的事情来确保线程安全。
- * 可以使用诸如写时复制（Lea:137）之类的技术来确保这一点，但此框架版本中的假设是，侦听器将在应用程序配置时添加，而不会在应用程序运行时添加或删除。
+ * <p>Listeners may be added or removed at runtime: the listeners are kept in
+ * an array that is replaced by a modified copy on each change (Copy-on-Write,
+ * Lea:137). Event notification just iterates over the current array, without
+ * locking, and is not affected by concurrent changes.
+ * 可以在运行时添加或删除侦听器：侦听器保存在一个数组中，每次更改时都用修改后的副本替换（写时复制，Lea:137）。
+ * 事件通知只是遍历当前数组，不加锁，也不受并发更改的影响。
  *
  * <p>All listeners are invoked in the calling thread. This allows the danger of
  * a rogue listener blocking the entire application, but adds minimal overhead.
  * 所有侦听器都在调用线程中调用。这允许流氓侦听器阻塞整个应用程序的危险，但增加了最小的开销。
- *
- * <p>An alternative implementation could be more sophisticated in both these respects.
- * 在这两个方面，另一种实施方式可能更为复杂。
+ * See AsyncApplicationEventMulticaster for invoking listeners in a worker thread.
  *
  * @author Rod Johnson
+ * @see AsyncApplicationEventMulticaster
  */
 public class ApplicationEventMulticasterImpl implements ApplicationEventMulticaster {
 
-	/** Set of listeners */ // 监听器的容器
-	private Set eventListeners = new HashSet();
+	/** Array of listeners, replaced on each change */ // 监听器的容器
+	private volatile ApplicationListener[] eventListeners = new ApplicationListener[0];
+
+	/** Lock for changes of the listener array */
+	private final Object listenerLock = new Object();
 
 	public void addApplicationListener(ApplicationListener l) {
-		eventListeners.add(l);
+		synchronized (this.listenerLock) {
+			ApplicationListener[] listeners = this.eventListeners;
+			if (indexOf(listeners, l) != -1) {
+				return;
+			}
+			ApplicationListener[] newListeners = new ApplicationListener[listeners.length + 1];
+			System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+			newListeners[listeners.length] = l;
+			this.eventListeners = newListeners;
+		}
 	}
 
 	public void removeApplicationListener(ApplicationListener l) {
-		eventListeners.remove(l);
+		synchronized (this.listenerLock) {
+			ApplicationListener[] listeners = this.eventListeners;
+			int index = indexOf(listeners, l);
+			if (index == -1) {
+				return;
+			}
+			ApplicationListener[] newListeners = new ApplicationListener[listeners.length - 1];
+			System.arraycopy(listeners, 0, newListeners, 0, index);
+			System.arraycopy(listeners, index + 1, newListeners, index, newListeners.length - index);
+			this.eventListeners = newListeners;
+		}
+	}
+
+	private static int indexOf(ApplicationListener[] listeners, ApplicationListener l) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i].equals(l)) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	// 时间发生时，逐一调用
 	public void onApplicationEvent(ApplicationEvent e) {
-		Iterator i = eventListeners.iterator();
-		while (i.hasNext()) {
-			ApplicationListener l = (ApplicationListener) i.next();
-			l.onApplicationEvent(e);
+		multicastEvent(e);
+	}
+
+	/**
+	 * Notify all listeners of the given event, in the calling thread.
+	 * @param e event to notify the listeners of
+	 */
+	protected final void multicastEvent(ApplicationEvent e) {
+		ApplicationListener[] listeners = this.eventListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onApplicationEvent(e);
 		}
 	}
 
+	/**
+	 * Return the listeners currently registered. The array must not be modified.
+	 */
+	protected final ApplicationListener[] getApplicationListeners() {
+		return this.eventListeners;
+	}
+
 	public void removeAllListeners() {
-		eventListeners.clear();
+		synchronized (this.listenerLock) {
+			this.eventListeners = new ApplicationListener[0];
+		}
 	}
 
 }
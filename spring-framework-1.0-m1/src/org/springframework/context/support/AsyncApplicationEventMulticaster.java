@@ -0,0 +1,319 @@
+/*
+ * The Spring Framework is published under the terms
+ * of the Apache Software License.
+ */
+
+package org.springframework.context.support;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * ApplicationEventMulticaster that notifies listeners in a worker thread,
+ * so that slow listeners don't add to the latency of the code publishing
+ * events, e.g. of the request processing publishing RequestHandledEvents.
+ * 在工作线程中通知侦听器的ApplicationEventMulticaster，使慢速侦听器不会增加发布事件的代码的延迟。
+ *
+ * <p>Published events are put into a bounded queue. A single worker thread,
+ * started on the first event, takes up to batchSize events from the queue
+ * at a time and notifies the listeners of them, in the order in which they
+ * were published. Exceptions thrown by listeners are logged and counted,
+ * but don't prevent notification of the other listeners.
+ *
+ * <p>If the queue is full, the event is dropped and counted by default.
+ * Alternatively, publishers can be blocked until the worker has made
+ * room in the queue: see the blockWhenFull property. Listeners publishing
+ * events in the worker thread are never blocked, as the worker would wait
+ * for itself: if the queue is full, their events are multicast right away.
+ * The counters exposed
+ * by this class show whether listeners keep up with the events published.
+ *
+ * <p>To be used for an application context, define a bean of this class
+ * named "applicationEventMulticaster". The worker thread is stopped when
+ * the context is closed; it still notifies the listeners of the events in
+ * the queue. Events published afterwards are multicast in the calling thread.
+ *
+ * @see AbstractApplicationContext#APPLICATION_EVENT_MULTICASTER_BEAN_NAME
+ */
+public class AsyncApplicationEventMulticaster extends ApplicationEventMulticasterImpl implements DisposableBean {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	public static final int DEFAULT_BATCH_SIZE = 50;
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private boolean blockWhenFull = false;
+
+	private String threadName = "ApplicationEventMulticaster";
+
+	/** Lock for all of the state below */
+	private final Object queueLock = new Object();
+
+	/** Ring buffer of queued events, created with the worker */
+	private ApplicationEvent[] queue;
+
+	private int queueHead;
+
+	private int queueSize;
+
+	private Thread worker;
+
+	private boolean shutdown;
+
+	private long publishedEventCount;
+
+	private long deliveredEventCount;
+
+	private long droppedEventCount;
+
+	private long failedListenerCount;
+
+	private int maxQueueSize;
+
+	/**
+	 * Set the maximum number of events waiting for notification.
+	 * Default is 1000.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("queueCapacity must be positive");
+		}
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of events the worker takes from the queue at a time.
+	 * Default is 50.
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set if publishers should wait for room in a full queue,
+	 * instead of dropping the event. Default is false.
+	 */
+	public void setBlockWhenFull(boolean blockWhenFull) {
+		this.blockWhenFull = blockWhenFull;
+	}
+
+	/**
+	 * Set the name of the worker thread.
+	 */
+	public void setThreadName(String threadName) {
+		this.threadName = threadName;
+	}
+
+	public void onApplicationEvent(ApplicationEvent e) {
+		synchronized (this.queueLock) {
+			if (!this.shutdown && enqueue(e)) {
+				return;
+			}
+		}
+		// no worker anymore, or called by the worker with a full queue:
+		// notify in the calling thread
+		multicastEvent(e);
+	}
+
+	/**
+	 * Put the given event into the queue, or drop it if the queue is full.
+	 * @return false if the caller should notify the listeners itself
+	 */
+	private boolean enqueue(ApplicationEvent e) {
+		if (this.worker == null) {
+			startWorker();
+		}
+		if (this.queueSize == this.queue.length && this.blockWhenFull && Thread.currentThread() == this.worker) {
+			// a listener publishing in the worker would wait for itself
+			return false;
+		}
+		this.publishedEventCount++;
+		if (this.queueSize == this.queue.length) {
+			if (!this.blockWhenFull) {
+				if (this.droppedEventCount++ == 0) {
+					logger.warn("Event queue full: dropping events, listeners don't keep up with publishers");
+				}
+				else if (logger.isDebugEnabled()) {
+					logger.debug("Event queue full: dropping event " + e);
+				}
+				return true;
+			}
+			while (this.queueSize == this.queue.length && !this.shutdown) {
+				try {
+					this.queueLock.wait();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					this.droppedEventCount++;
+					return true;
+				}
+			}
+			if (this.shutdown) {
+				// the worker might have finished already
+				this.droppedEventCount++;
+				return true;
+			}
+		}
+		this.queue[(this.queueHead + this.queueSize) % this.queue.length] = e;
+		this.queueSize++;
+		if (this.queueSize > this.maxQueueSize) {
+			this.maxQueueSize = this.queueSize;
+		}
+		if (this.queueSize == 1) {
+			this.queueLock.notifyAll();
+		}
+		return true;
+	}
+
+	private void startWorker() {
+		this.queue = new ApplicationEvent[this.queueCapacity];
+		this.worker = new Thread(this.threadName) {
+			public void run() {
+				processEvents();
+			}
+		};
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Worker loop: notify the listeners of batches of queued events
+	 * until shut down and the queue is empty.
+	 */
+	private void processEvents() {
+		ApplicationEvent[] batch = new ApplicationEvent[this.batchSize];
+		while (true) {
+			int count;
+			synchronized (this.queueLock) {
+				while (this.queueSize == 0 && !this.shutdown) {
+					try {
+						this.queueLock.wait();
+					}
+					catch (InterruptedException ex) {
+						// only shutdown ends the worker
+					}
+				}
+				if (this.queueSize == 0) {
+					return;
+				}
+				boolean wasFull = (this.queueSize == this.queue.length);
+				count = Math.min(this.queueSize, batch.length);
+				for (int i = 0; i < count; i++) {
+					batch[i] = this.queue[this.queueHead];
+					this.queue[this.queueHead] = null;
+					this.queueHead = (this.queueHead + 1) % this.queue.length;
+				}
+				this.queueSize -= count;
+				if (wasFull) {
+					// wake publishers waiting for room
+					this.queueLock.notifyAll();
+				}
+			}
+			int failed = 0;
+			for (int i = 0; i < count; i++) {
+				failed += notifyListeners(batch[i]);
+				batch[i] = null;
+			}
+			synchronized (this.queueLock) {
+				this.deliveredEventCount += count;
+				this.failedListenerCount += failed;
+			}
+		}
+	}
+
+	/**
+	 * Notify all listeners of the given event, logging their exceptions.
+	 * @return the number of listeners that threw an exception
+	 */
+	private int notifyListeners(ApplicationEvent e) {
+		ApplicationListener[] listeners = getApplicationListeners();
+		int failed = 0;
+		for (int i = 0; i < listeners.length; i++) {
+			try {
+				listeners[i].onApplicationEvent(e);
+			}
+			catch (Throwable ex) {
+				failed++;
+				logger.error("Listener [" + listeners[i] + "] threw exception on event " + e, ex);
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * Stop the worker thread after it has notified the listeners
+	 * of the queued events. Doesn't wait for the worker to finish.
+	 */
+	public void destroy() {
+		synchronized (this.queueLock) {
+			this.shutdown = true;
+			this.queueLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Return the number of events published, including dropped ones.
+	 */
+	public long getPublishedEventCount() {
+		synchronized (this.queueLock) {
+			return publishedEventCount;
+		}
+	}
+
+	/**
+	 * Return the number of events the worker notified the listeners of.
+	 */
+	public long getDeliveredEventCount() {
+		synchronized (this.queueLock) {
+			return deliveredEventCount;
+		}
+	}
+
+	/**
+	 * Return the number of events dropped because the queue was full.
+	 */
+	public long getDroppedEventCount() {
+		synchronized (this.queueLock) {
+			return droppedEventCount;
+		}
+	}
+
+	/**
+	 * Return the number of listener notifications that threw an exception.
+	 */
+	public long getFailedListenerCount() {
+		synchronized (this.queueLock) {
+			return failedListenerCount;
+		}
+	}
+
+	/**
+	 * Return the number of events currently waiting for notification.
+	 */
+	public int getQueueSize() {
+		synchronized (this.queueLock) {
+			return queueSize;
+		}
+	}
+
+	/**
+	 * Return the largest number of events that have been waiting at a time.
+	 */
+	public int getMaxQueueSize() {
+		synchronized (this.queueLock) {
+			return maxQueueSize;
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * The Spring Framework is published under the terms
+ * of the Apache Software License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aopalliance.intercept.AttributeRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * TransactionAttributeSource decorator that resolves the attribute of
+ * each method once and caches it, keyed by method, target class and the
+ * attribute registry of the invocation.
+ * Methods that are not transactional are cached as well, so that
+ * neither the pattern matching of name-based sources nor the lookups
+ * of attribute-based sources are repeated on every invocation.
+ *
+ * <p>Only suitable for sources whose result depends on the method, target
+ * class and attribute registry alone, not on the arguments or other state
+ * of the invocation. This holds for the sources of this package, but not
+ * necessarily for subclasses of them.
+ *
+ * <p>Reads don't lock: the cache is replaced by a copy whenever a
+ * method is resolved for the first time.
+ *
+ * @see TransactionInterceptor#setTransactionAttributeSource
+ */
+public class CachingTransactionAttributeSource implements TransactionAttributeSource {
+
+	/** Marker for methods without transaction attribute */
+	private static final Object NULL_ATTRIBUTE = new Object();
+
+	private final TransactionAttributeSource targetSource;
+
+	/** Map from InvocationKey to TransactionAttribute or NULL_ATTRIBUTE */
+	private volatile Map attributeCache = new HashMap();
+
+	private final Object cacheLock = new Object();
+
+	/**
+	 * Create a new CachingTransactionAttributeSource.
+	 * @param targetSource the source to resolve uncached methods with
+	 */
+	public CachingTransactionAttributeSource(TransactionAttributeSource targetSource) {
+		if (targetSource == null) {
+			throw new IllegalArgumentException("targetSource is required");
+		}
+		this.targetSource = targetSource;
+	}
+
+	/**
+	 * Return the source that this source resolves uncached methods with.
+	 */
+	public TransactionAttributeSource getTargetSource() {
+		return targetSource;
+	}
+
+	public TransactionAttribute getTransactionAttribute(MethodInvocation invocation) {
+		Object target = invocation.getThis();
+		Object key = new InvocationKey(invocation.getMethod(), target != null ? target.getClass() : null,
+		                               invocation.getAttributeRegistry());
+		Object cached = this.attributeCache.get(key);
+		if (cached == null) {
+			TransactionAttribute attr = this.targetSource.getTransactionAttribute(invocation);
+			cached = (attr != null ? attr : NULL_ATTRIBUTE);
+			synchronized (this.cacheLock) {
+				Map newCache = new HashMap(this.attributeCache);
+				newCache.put(key, cached);
+				this.attributeCache = newCache;
+			}
+		}
+		return (cached != NULL_ATTRIBUTE ? (TransactionAttribute) cached : null);
+	}
+
+
+	/**
+	 * Cache key for a method invoked on a target class,
+	 * with the attribute registry of the invocation.
+	 */
+	private static final class InvocationKey {
+
+		private final Method method;
+
+		private final Class targetClass;
+
+		private final AttributeRegistry attributeRegistry;
+
+		public InvocationKey(Method method, Class targetClass, AttributeRegistry attributeRegistry) {
+			this.method = method;
+			this.targetClass = targetClass;
+			this.attributeRegistry = attributeRegistry;
+		}
+
+		public boolean equals(Object other) {
+			if (!(other instanceof InvocationKey)) {
+				return false;
+			}
+			InvocationKey otherKey = (InvocationKey) other;
+			return this.method.equals(otherKey.method) && this.targetClass == otherKey.targetClass &&
+			    this.attributeRegistry == otherKey.attributeRegistry;
+		}
+
+		public int hashCode() {
+			return (this.method.hashCode() * 29 + (this.targetClass != null ? this.targetClass.hashCode() : 0)) * 29 +
+			    System.identityHashCode(this.attributeRegistry);
+		}
+	}
+
+}
@@ -141,7 +141,7 @@ public class MethodMapTransactionAttributeSource implements TransactionAttribute
 	 */
 	protected boolean isMatch(String methodName, String mappedName) {
 		return methodName.equals(mappedName) ||
-		    (mappedName.endsWith("*") && methodName.startsWith(mappedName.substring(0, mappedName.length() - 1)));
+		    (mappedName.endsWith("*") && methodName.regionMatches(0, mappedName, 0, mappedName.length() - 1));
 	}
 
 }
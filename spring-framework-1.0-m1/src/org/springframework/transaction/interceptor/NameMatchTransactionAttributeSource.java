@@ -31,14 +31,20 @@ public class NameMatchTransactionAttributeSource implements TransactionAttribute
 		this.nameMap.put(methodName, attr);
 	}
 
+	/**
+	 * Return the attribute of the most specific, i.e. longest,
+	 * mapped name that matches the name of the invoked method.
+	 */
 	public TransactionAttribute getTransactionAttribute(MethodInvocation invocation) {
+		String methodName = invocation.getMethod().getName();
+		String bestName = null;
 		for (Iterator it = this.nameMap.keySet().iterator(); it.hasNext();) {
 			String mappedName = (String) it.next();
-			if (isMatch(invocation.getMethod().getName(), mappedName)) {
-				return (TransactionAttribute) this.nameMap.get(mappedName);
+			if ((bestName == null || mappedName.length() > bestName.length()) && isMatch(methodName, mappedName)) {
+				bestName = mappedName;
 			}
 		}
-		return null;
+		return (bestName != null ? (TransactionAttribute) this.nameMap.get(bestName) : null);
 	}
 
 	/**
@@ -51,7 +57,7 @@ public class NameMatchTransactionAttributeSource implements TransactionAttribute
 	 */
 	protected boolean isMatch(String methodName, String mappedName) {
 		return methodName.equals(mappedName) ||
-		    (mappedName.endsWith("*") && methodName.startsWith(mappedName.substring(0, mappedName.length() - 1)));
+		    (mappedName.endsWith("*") && methodName.regionMatches(0, mappedName, 0, mappedName.length() - 1));
 	}
 
 }
@@ -64,6 +64,9 @@ public class TransactionInterceptor implements MethodInterceptor, InitializingBe
 	/** Helper used to find transaction attributes */
 	private TransactionAttributeSource transactionAttributeSource;
 
+	/** Source actually queried on invocation, possibly caching the above */
+	private TransactionAttributeSource resolvingAttributeSource;
+
 	/**
 	 * Create a new TransactionInterceptor.
 	 * Sets AttributeRegistryTransactionAttributeSource as default source.
@@ -74,7 +77,7 @@ public class TransactionInterceptor implements MethodInterceptor, InitializingBe
 	 */
 	public TransactionInterceptor() {
 		// Set default properties, which may be changed later
-		this.transactionAttributeSource = new AttributeRegistryTransactionAttributeSource();
+		setTransactionAttributeSource(new AttributeRegistryTransactionAttributeSource());
 	}
 
 	/**
@@ -96,9 +99,25 @@ public class TransactionInterceptor implements MethodInterceptor, InitializingBe
 	 * Set the transaction attribute source which is used to
 	 * find transaction attributes. The default implementation looks
 	 * at the metadata attributes associated with the current invocation.
+	 * <p>Instances of the source classes of this package are wrapped in a
+	 * CachingTransactionAttributeSource, as their attributes only depend
+	 * on the method invoked and the attribute registry: such a source must
+	 * be fully configured before it is passed in here. Other sources,
+	 * including subclasses of those of this package, are queried on every
+	 * invocation, unless wrapped explicitly.
+	 * @see CachingTransactionAttributeSource
 	 */
 	public void setTransactionAttributeSource(TransactionAttributeSource transactionAttributeSource) {
 		this.transactionAttributeSource = transactionAttributeSource;
+		Class sourceClass = (transactionAttributeSource != null ? transactionAttributeSource.getClass() : null);
+		if (sourceClass == AttributeRegistryTransactionAttributeSource.class ||
+				sourceClass == MethodMapTransactionAttributeSource.class ||
+				sourceClass == NameMatchTransactionAttributeSource.class) {
+			this.resolvingAttributeSource = new CachingTransactionAttributeSource(transactionAttributeSource);
+		}
+		else {
+			this.resolvingAttributeSource = transactionAttributeSource;
+		}
 	}
 
 	/**
@@ -122,7 +141,7 @@ public class TransactionInterceptor implements MethodInterceptor, InitializingBe
 	 */
 	public final Object invoke(MethodInvocation invocation) throws Throwable {
 		// If this is null, the method is non-transactional
-		TransactionAttribute transAtt = this.transactionAttributeSource.getTransactionAttribute(invocation);
+		TransactionAttribute transAtt = this.resolvingAttributeSource.getTransactionAttribute(invocation);
 		TransactionStatus status = null;
 		
 		// Create transaction if necessary
@@ -0,0 +1,145 @@
+/*
+ * The Spring Framework is published under the terms
+ * of the Apache Software License.
+ */
+
+package org.springframework.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of ResponseTimeMonitorImpls keyed by name, e.g. one per URL
+ * or per method, that can be fed by web request listeners and method
+ * interceptors alike.
+ *
+ * <p>A monitor is created for each key on its first response time. To keep
+ * memory bounded if keys come from requests, response times for keys beyond
+ * maxKeys are recorded under OTHER_KEY. Looking up the monitor of a key
+ * doesn't lock: the map of monitors is replaced by a copy when a key is added.
+ *
+ * @see ResponseTimeMonitorImpl
+ * @see org.springframework.web.context.support.PerformanceMonitorListener
+ * @see org.springframework.aop.interceptor.PerformanceMonitorInterceptor
+ */
+public class KeyedResponseTimeMonitor {
+
+	/** Key for response times of keys beyond maxKeys */
+	public static final String OTHER_KEY = "<other>";
+
+	public static final int DEFAULT_MAX_KEYS = 100;
+
+	private int maxKeys = DEFAULT_MAX_KEYS;
+
+	private long intervalMillis = ResponseTimeMonitorImpl.DEFAULT_INTERVAL_MILLIS;
+
+	private int intervalCount = ResponseTimeMonitorImpl.DEFAULT_INTERVAL_COUNT;
+
+	/** Map from String key to ResponseTimeMonitorImpl, replaced on each change */
+	private volatile Map monitors = new HashMap();
+
+	/** Monitor for OTHER_KEY, set once maxKeys is reached */
+	private volatile ResponseTimeMonitorImpl otherMonitor;
+
+	private final Object monitorLock = new Object();
+
+	/**
+	 * Set the maximum number of keys with their own monitor. Default is 100.
+	 */
+	public void setMaxKeys(int maxKeys) {
+		this.maxKeys = maxKeys;
+		this.otherMonitor = null;
+	}
+
+	/**
+	 * Set the length of the intervals of the recent time window
+	 * of monitors created from now on. Default is one minute.
+	 */
+	public void setIntervalMillis(long intervalMillis) {
+		this.intervalMillis = intervalMillis;
+	}
+
+	/**
+	 * Set the number of intervals in the recent time window of monitors
+	 * created from now on, in addition to the current one. Default is 5.
+	 */
+	public void setIntervalCount(int intervalCount) {
+		this.intervalCount = intervalCount;
+	}
+
+	/**
+	 * Record a response time for the given key.
+	 * @param key name of the monitored resource, e.g. URL or method
+	 * @param responseTime the response time in milliseconds
+	 */
+	public void recordResponseTime(String key, long responseTime) {
+		ResponseTimeMonitorImpl monitor = (ResponseTimeMonitorImpl) this.monitors.get(key);
+		if (monitor == null) {
+			// keys beyond maxKeys must not take the lock on every response time
+			monitor = this.otherMonitor;
+			if (monitor == null) {
+				monitor = addMonitor(key);
+			}
+		}
+		monitor.recordResponseTime(responseTime);
+	}
+
+	private ResponseTimeMonitorImpl addMonitor(String key) {
+		synchronized (this.monitorLock) {
+			ResponseTimeMonitorImpl monitor = (ResponseTimeMonitorImpl) this.monitors.get(key);
+			if (monitor == null) {
+				if (this.monitors.size() >= this.maxKeys) {
+					monitor = (ResponseTimeMonitorImpl) this.monitors.get(OTHER_KEY);
+					key = OTHER_KEY;
+				}
+				if (monitor == null) {
+					monitor = new ResponseTimeMonitorImpl(this.intervalMillis, this.intervalCount);
+					Map newMonitors = new HashMap(this.monitors);
+					newMonitors.put(key, monitor);
+					this.monitors = newMonitors;
+				}
+				if (OTHER_KEY.equals(key) && this.monitors.size() >= this.maxKeys) {
+					this.otherMonitor = monitor;
+				}
+			}
+			return monitor;
+		}
+	}
+
+	/**
+	 * Return the monitor for the given key.
+	 * @return the monitor, or null if no response time recorded for the key
+	 */
+	public ResponseTimeMonitorImpl getMonitor(String key) {
+		return (ResponseTimeMonitorImpl) this.monitors.get(key);
+	}
+
+	/**
+	 * Return snapshots of all response times recorded.
+	 * @return Map from key to ResponseTimeStatistics, sorted by key
+	 */
+	public Map getStatistics() {
+		Map result = new TreeMap();
+		for (Iterator it = this.monitors.entrySet().iterator(); it.hasNext();) {
+			Map.Entry entry = (Map.Entry) it.next();
+			result.put(entry.getKey(), ((ResponseTimeMonitorImpl) entry.getValue()).getStatistics());
+		}
+		return result;
+	}
+
+	/**
+	 * Return snapshots of the response times recorded in the recent time window.
+	 * @return Map from key to ResponseTimeStatistics, sorted by key
+	 */
+	public Map getRecentStatistics() {
+		Map result = new TreeMap();
+		for (Iterator it = this.monitors.entrySet().iterator(); it.hasNext();) {
+			Map.Entry entry = (Map.Entry) it.next();
+			result.put(entry.getKey(), ((ResponseTimeMonitorImpl) entry.getValue()).getRecentStatistics());
+		}
+		return result;
+	}
+
+}
@@ -165,12 +165,26 @@ public abstract class PathMatcher {
 	 * pattern, or <code>false</code> otherwise.
 	 */
 	private static boolean matchStrings(String pattern, String str) {
-		char[] patArr = pattern.toCharArray();
-		char[] strArr = str.toCharArray();
+		return matchStrings(pattern.toCharArray(), str, 0, str.length());
+	}
+
+	/**
+	 * Tests whether or not a region of a string matches against a pattern,
+	 * as matchStrings(String, String) does for a whole string. Doesn't
+	 * create any objects, so that precompiled patterns can be matched
+	 * against the segments of a path in place.
+	 * @param patArr pattern to match against
+	 * @param str string containing the region to match
+	 * @param start index of the first character of the region
+	 * @param end index after the last character of the region
+	 * @return <code>true</code> if the region matches against the
+	 * pattern, or <code>false</code> otherwise.
+	 */
+	static boolean matchStrings(char[] patArr, String str, int start, int end) {
 		int patIdxStart = 0;
 		int patIdxEnd = patArr.length - 1;
-		int strIdxStart = 0;
-		int strIdxEnd = strArr.length - 1;
+		int strIdxStart = start;
+		int strIdxEnd = end - 1;
 		char ch;
 
 		boolean containsStar = false;
@@ -183,13 +197,13 @@ public abstract class PathMatcher {
 
 		if (!containsStar) {
 			// No '*'s, so we make a shortcut
-			if (patIdxEnd != strIdxEnd) {
+			if (patArr.length != end - start) {
 				return false; // Pattern and string do not have the same size
 			}
 			for (int i = 0; i <= patIdxEnd; i++) {
 				ch = patArr[i];
 				if (ch != '?') {
-					if (ch != strArr[i]) {
+					if (ch != str.charAt(start + i)) {
 						return false;// Character mismatch
 					}
 				}
@@ -205,7 +219,7 @@ public abstract class PathMatcher {
 		// Process characters before first star
 		while ((ch = patArr[patIdxStart]) != '*' && strIdxStart <= strIdxEnd) {
 			if (ch != '?') {
-				if (ch != strArr[strIdxStart]) {
+				if (ch != str.charAt(strIdxStart)) {
 					return false;// Character mismatch
 				}
 			}
@@ -226,7 +240,7 @@ public abstract class PathMatcher {
 		// Process characters after last star
 		while ((ch = patArr[patIdxEnd]) != '*' && strIdxStart <= strIdxEnd) {
 			if (ch != '?') {
-				if (ch != strArr[strIdxEnd]) {
+				if (ch != str.charAt(strIdxEnd)) {
 					return false;// Character mismatch
 				}
 			}
@@ -269,7 +283,7 @@ public abstract class PathMatcher {
 				for (int j = 0; j < patLength; j++) {
 					ch = patArr[patIdxStart + j + 1];
 					if (ch != '?') {
-						if (ch != strArr[strIdxStart + i + j]) {
+						if (ch != str.charAt(strIdxStart + i + j)) {
 							continue strLoop;
 						}
 					}
@@ -0,0 +1,236 @@
+/*
+ * The Spring Framework is published under the terms
+ * of the Apache Software License.
+ */
+
+package org.springframework.util;
+
+import java.util.StringTokenizer;
+
+/**
+ * Map from Ant-style path patterns to values, for finding the value
+ * of a pattern that matches a given path. Patterns have the syntax and
+ * semantics of PathMatcher, but are split into their path elements
+ * once when added, and kept in a tree with one level per path element.
+ * Looking up a path walks the tree along the elements of the path,
+ * so its cost depends on the length of the path rather than on the
+ * number of patterns, and doesn't create any objects.
+ *
+ * <p>If several patterns match a path, precedence is deterministic:
+ * for each path element, a literal element is preferred over an element
+ * with '*' or '?' wildcards, which are tried in the order they were added,
+ * which in turn are preferred over '**'. The first pattern that matches
+ * the whole path wins.
+ *
+ * <p>Not thread-safe for modifications: patterns should be added before
+ * the map is used for lookups.
+ *
+ * @see PathMatcher
+ */
+public final class PathPatternTrie {
+
+	/** Root for patterns starting with a slash */
+	private final Node absoluteRoot = new Node();
+
+	/** Root for patterns not starting with a slash */
+	private final Node relativeRoot = new Node();
+
+	/**
+	 * Add a pattern, replacing the value of an equal pattern.
+	 * @param pattern the Ant-style pattern
+	 * @param value the value to return for paths matching the pattern
+	 */
+	public void put(String pattern, Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value for pattern '" + pattern + "' must not be null");
+		}
+		Node node = (pattern.startsWith("/") ? this.absoluteRoot : this.relativeRoot);
+		StringTokenizer st = new StringTokenizer(pattern, "/");
+		while (st.hasMoreTokens()) {
+			node = node.getOrAddChild(st.nextToken());
+		}
+		node.value = value;
+	}
+
+	/**
+	 * Return the value of the first pattern matching the given path,
+	 * according to the precedence described above.
+	 * @param path the path to match
+	 * @return the value, or null if no pattern matches
+	 */
+	public Object match(String path) {
+		Node root = (path.startsWith("/") ? this.absoluteRoot : this.relativeRoot);
+		return match(root, path, skipSlashes(path, 0));
+	}
+
+	/**
+	 * Match the part of the path starting at the given position,
+	 * which is the start of a path element or the end of the path.
+	 */
+	private static Object match(Node node, String path, int pos) {
+		int length = path.length();
+		if (pos == length) {
+			if (node.value != null) {
+				return node.value;
+			}
+			// a trailing '**' also matches no elements
+			return (node.doubleWildcardChild != null ? match(node.doubleWildcardChild, path, pos) : null);
+		}
+
+		int end = elementEnd(path, pos);
+		int next = skipSlashes(path, end);
+		Node literalChild = node.findLiteralChild(path, pos, end);
+		if (literalChild != null) {
+			Object value = match(literalChild, path, next);
+			if (value != null) {
+				return value;
+			}
+		}
+		for (int i = 0; i < node.wildcardCount; i++) {
+			if (PathMatcher.matchStrings(node.wildcardPatterns[i], path, pos, end)) {
+				Object value = match(node.wildcardChildren[i], path, next);
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+		if (node.doubleWildcardChild != null) {
+			// '**' matches zero or more elements: try every remaining position
+			int restPos = pos;
+			while (true) {
+				Object value = match(node.doubleWildcardChild, path, restPos);
+				if (value != null) {
+					return value;
+				}
+				if (restPos == length) {
+					break;
+				}
+				restPos = skipSlashes(path, elementEnd(path, restPos));
+			}
+		}
+		return null;
+	}
+
+	private static int skipSlashes(String path, int pos) {
+		while (pos < path.length() && path.charAt(pos) == '/') {
+			pos++;
+		}
+		return pos;
+	}
+
+	private static int elementEnd(String path, int pos) {
+		int end = path.indexOf('/', pos);
+		return (end != -1 ? end : path.length());
+	}
+
+	/**
+	 * Compare a name with a region of a string, like String.compareTo.
+	 */
+	private static int compare(String name, String str, int start, int end) {
+		int length = Math.min(name.length(), end - start);
+		for (int i = 0; i < length; i++) {
+			int diff = name.charAt(i) - str.charAt(start + i);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return name.length() - (end - start);
+	}
+
+
+	/**
+	 * Node for a path element of one or more patterns.
+	 */
+	private static final class Node {
+
+		/** Value of the pattern ending at this node, or null */
+		private Object value;
+
+		/** Literal child elements, sorted for binary search */
+		private String[] literalNames = new String[0];
+
+		private Node[] literalChildren = new Node[0];
+
+		/** Child elements with '*' or '?', in the order they were added */
+		private char[][] wildcardPatterns = new char[0][];
+
+		private Node[] wildcardChildren = new Node[0];
+
+		private int wildcardCount;
+
+		/** Child for a '**' element, or null */
+		private Node doubleWildcardChild;
+
+		private Node findLiteralChild(String path, int start, int end) {
+			int low = 0;
+			int high = this.literalNames.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int cmp = compare(this.literalNames[mid], path, start, end);
+				if (cmp < 0) {
+					low = mid + 1;
+				}
+				else if (cmp > 0) {
+					high = mid - 1;
+				}
+				else {
+					return this.literalChildren[mid];
+				}
+			}
+			return null;
+		}
+
+		private Node getOrAddChild(String element) {
+			if ("**".equals(element)) {
+				if (this.doubleWildcardChild == null) {
+					this.doubleWildcardChild = new Node();
+				}
+				return this.doubleWildcardChild;
+			}
+			if (element.indexOf('*') != -1 || element.indexOf('?') != -1) {
+				return getOrAddWildcardChild(element);
+			}
+			Node child = findLiteralChild(element, 0, element.length());
+			if (child == null) {
+				child = new Node();
+				int pos = 0;
+				while (pos < this.literalNames.length && this.literalNames[pos].compareTo(element) < 0) {
+					pos++;
+				}
+				String[] newNames = new String[this.literalNames.length + 1];
+				Node[] newChildren = new Node[newNames.length];
+				System.arraycopy(this.literalNames, 0, newNames, 0, pos);
+				System.arraycopy(this.literalChildren, 0, newChildren, 0, pos);
+				newNames[pos] = element;
+				newChildren[pos] = child;
+				System.arraycopy(this.literalNames, pos, newNames, pos + 1, this.literalNames.length - pos);
+				System.arraycopy(this.literalChildren, pos, newChildren, pos + 1, this.literalNames.length - pos);
+				this.literalNames = newNames;
+				this.literalChildren = newChildren;
+			}
+			return child;
+		}
+
+		private Node getOrAddWildcardChild(String element) {
+			for (int i = 0; i < this.wildcardCount; i++) {
+				if (element.equals(new String(this.wildcardPatterns[i]))) {
+					return this.wildcardChildren[i];
+				}
+			}
+			if (this.wildcardCount == this.wildcardPatterns.length) {
+				char[][] newPatterns = new char[this.wildcardCount * 2 + 1][];
+				Node[] newChildren = new Node[newPatterns.length];
+				System.arraycopy(this.wildcardPatterns, 0, newPatterns, 0, this.wildcardCount);
+				System.arraycopy(this.wildcardChildren, 0, newChildren, 0, this.wildcardCount);
+				this.wildcardPatterns = newPatterns;
+				this.wildcardChildren = newChildren;
+			}
+			Node child = new Node();
+			this.wildcardPatterns[this.wildcardCount] = element.toCharArray();
+			this.wildcardChildren[this.wildcardCount] = child;
+			this.wildcardCount++;
+			return child;
+		}
+	}
+
+}
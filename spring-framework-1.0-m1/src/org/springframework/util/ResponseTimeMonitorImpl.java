@@ -11,34 +11,62 @@ import java.util.Date;
  * Implementation of ResponseTimeMonitor for use via delegation by
  * objects that implement this interface.
  *
- * <p>Uses no synchronization, so is suitable for use in a web application.
+ * <p>Threadsafe without making recording threads wait for each other
+ * in the common case: response times are recorded in one of a few
+ * stripes, chosen by the recording thread, each with its own lock.
+ * Reading statistics merges the stripes.
+ *
+ * <p>Keeps a histogram of the response times for percentiles, both since
+ * creation and for a recent time window, which covers the given number of
+ * intervals before the current one. Memory use is fixed, about 40 KB with
+ * the default window of 5 one-minute intervals.
  *
  * @author Rod Johnson
  * @since November 21, 2000
  * @version $Id: ResponseTimeMonitorImpl.java,v 1.1.1.1 2003/08/14 16:20:46 trisberg Exp $
+ * @see ResponseTimeStatistics
  */
 public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 
-	/** The number of operations recorded by this object */
-	private int accessCount;
+	public static final long DEFAULT_INTERVAL_MILLIS = 60000;
+
+	public static final int DEFAULT_INTERVAL_COUNT = 5;
+
+	/** Number of stripes, must be a power of two */
+	private static final int STRIPE_COUNT = 4;
 
 	/** The system time at which this object was initialized */
 	private long initedMillis;
 
-	/** The sum of the response times for all operations */
-	private int totalResponseTimeMillis = 0;
+	/** Length of the intervals of the recent time window */
+	private final long intervalMillis;
 
-	/** The best response time this object has recorded */
-	private int bestResponseTimeMillis = Integer.MAX_VALUE;
+	/** Response times recorded by different threads */
+	private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
 
-	/** The worst response time this object has recorded */
-	private int worstResponseTimeMillis = Integer.MIN_VALUE;
+	/**
+	 * Creates a new ResponseTimeMonitorImpl,
+	 * with a recent time window of 5 one-minute intervals.
+	 */
+	public ResponseTimeMonitorImpl() {
+		this(DEFAULT_INTERVAL_MILLIS, DEFAULT_INTERVAL_COUNT);
+	}
 
 	/**
 	 * Creates a new ResponseTimeMonitorImpl.
+	 * @param intervalMillis length of the intervals of the recent time window
+	 * @param intervalCount number of intervals in the recent time window,
+	 * in addition to the current one
 	 */
-	public ResponseTimeMonitorImpl() {
+	public ResponseTimeMonitorImpl(long intervalMillis, int intervalCount) {
+		if (intervalMillis <= 0 || intervalCount < 0) {
+			throw new IllegalArgumentException("intervalMillis must be positive and intervalCount not negative");
+		}
 		initedMillis = System.currentTimeMillis();
+		this.intervalMillis = intervalMillis;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			this.stripes[i] = new Stripe(intervalCount + 1);
+		}
 	}
 
 	/**
@@ -46,7 +74,7 @@ public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 	 * @return the number of hits this object has handled
 	 */
 	public final int getAccessCount() {
-		return accessCount;
+		return (int) getStatistics().getCount();
 	}
 
 	/**
@@ -70,10 +98,7 @@ public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 	 * @return the average response time achieved by this object
 	 */
 	public final int getAverageResponseTimeMillis() {
-		// Avoid division by 0
-		if (getAccessCount() == 0)
-			return 0;
-		return totalResponseTimeMillis / getAccessCount();
+		return (int) getStatistics().getAverageResponseTimeMillis();
 	}
 
 	/**
@@ -81,7 +106,8 @@ public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 	 * @return the best (lowest) response time achieved by this object
 	 */
 	public final int getBestResponseTimeMillis() {
-		return bestResponseTimeMillis;
+		ResponseTimeStatistics stats = getStatistics();
+		return (stats.getCount() > 0 ? (int) stats.getBestResponseTimeMillis() : Integer.MAX_VALUE);
 	}
 
 	/**
@@ -89,7 +115,43 @@ public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 	 * @return  the worst (slowest) response time achieved by this object
 	 */
 	public final int getWorstResponseTimeMillis() {
-		return worstResponseTimeMillis;
+		ResponseTimeStatistics stats = getStatistics();
+		return (stats.getCount() > 0 ? (int) stats.getWorstResponseTimeMillis() : Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Return a snapshot of all response times recorded by this object.
+	 */
+	public final ResponseTimeStatistics getStatistics() {
+		Recording merged = new Recording();
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			Stripe stripe = this.stripes[i];
+			synchronized (stripe) {
+				merged.add(stripe.total);
+			}
+		}
+		return merged.toStatistics();
+	}
+
+	/**
+	 * Return a snapshot of the response times recorded by this object
+	 * in the current interval and the given number of intervals before.
+	 */
+	public final ResponseTimeStatistics getRecentStatistics() {
+		long interval = System.currentTimeMillis() / this.intervalMillis;
+		Recording merged = new Recording();
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			Stripe stripe = this.stripes[i];
+			synchronized (stripe) {
+				for (int j = 0; j < stripe.intervals.length; j++) {
+					Recording recording = stripe.intervals[j];
+					if (recording.interval > interval - stripe.intervals.length && recording.interval <= interval) {
+						merged.add(recording);
+					}
+				}
+			}
+		}
+		return merged.toStatistics();
 	}
 
 	/**
@@ -98,13 +160,20 @@ public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 	 * @param responseTime the response time of this request
 	 */
 	public final void recordResponseTime(long responseTime) {
-		++accessCount;
-		int iResponseTime = (int) responseTime;
-		totalResponseTimeMillis += iResponseTime;
-		if (iResponseTime < bestResponseTimeMillis)
-			bestResponseTimeMillis = iResponseTime;
-		if (iResponseTime > worstResponseTimeMillis)
-			worstResponseTimeMillis = iResponseTime;
+		if (responseTime < 0) {
+			responseTime = 0;
+		}
+		int bucket = ResponseTimeStatistics.bucketFor(responseTime);
+		long interval = System.currentTimeMillis() / this.intervalMillis;
+		Stripe stripe = this.stripes[System.identityHashCode(Thread.currentThread()) & (STRIPE_COUNT - 1)];
+		synchronized (stripe) {
+			stripe.total.record(responseTime, bucket);
+			Recording recording = stripe.intervals[(int) (interval % stripe.intervals.length)];
+			if (recording.interval != interval) {
+				recording.reset(interval);
+			}
+			recording.record(responseTime, bucket);
+		}
 	}
 
 	/**
@@ -112,7 +181,83 @@ public class ResponseTimeMonitorImpl implements ResponseTimeMonitor {
 	 * data recorded by this object.
 	 */
 	public String toString() {
-		return "hits=" + getAccessCount() + "; avg=" + getAverageResponseTimeMillis() + "; best=" + getBestResponseTimeMillis() + "; worst=" + getWorstResponseTimeMillis();
+		return getStatistics().toString();
+	}
+
+
+	/**
+	 * Response times recorded by some of the threads, guarded by its monitor.
+	 */
+	private static final class Stripe {
+
+		private final Recording total = new Recording();
+
+		/** Ring of recordings per interval, indexed by interval modulo length */
+		private final Recording[] intervals;
+
+		private Stripe(int intervalCount) {
+			this.intervals = new Recording[intervalCount];
+			for (int i = 0; i < intervalCount; i++) {
+				this.intervals[i] = new Recording();
+			}
+		}
+	}
+
+
+	/**
+	 * Counters and histogram of recorded response times.
+	 */
+	private static final class Recording {
+
+		/** Interval this recording belongs to, if part of the recent time window */
+		private long interval = -1;
+
+		private long count;
+
+		private long totalMillis;
+
+		private long bestMillis = Long.MAX_VALUE;
+
+		private long worstMillis = Long.MIN_VALUE;
+
+		private final long[] buckets = new long[ResponseTimeStatistics.BUCKET_COUNT];
+
+		private void record(long millis, int bucket) {
+			this.count++;
+			this.totalMillis += millis;
+			if (millis < this.bestMillis) {
+				this.bestMillis = millis;
+			}
+			if (millis > this.worstMillis) {
+				this.worstMillis = millis;
+			}
+			this.buckets[bucket]++;
+		}
+
+		private void reset(long interval) {
+			this.interval = interval;
+			this.count = 0;
+			this.totalMillis = 0;
+			this.bestMillis = Long.MAX_VALUE;
+			this.worstMillis = Long.MIN_VALUE;
+			for (int i = 0; i < this.buckets.length; i++) {
+				this.buckets[i] = 0;
+			}
+		}
+
+		private void add(Recording other) {
+			this.count += other.count;
+			this.totalMillis += other.totalMillis;
+			this.bestMillis = Math.min(this.bestMillis, other.bestMillis);
+			this.worstMillis = Math.max(this.worstMillis, other.worstMillis);
+			for (int i = 0; i < this.buckets.length; i++) {
+				this.buckets[i] += other.buckets[i];
+			}
+		}
+
+		private ResponseTimeStatistics toStatistics() {
+			return new ResponseTimeStatistics(this.count, this.totalMillis, this.bestMillis, this.worstMillis, this.buckets);
+		}
 	}
 
 }
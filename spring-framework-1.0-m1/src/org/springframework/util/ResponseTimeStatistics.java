@@ -0,0 +1,172 @@
+/*
+ * The Spring Framework is published under the terms
+ * of the Apache Software License.
+ */
+
+package org.springframework.util;
+
+/**
+ * Immutable snapshot of the response times recorded by a
+ * ResponseTimeMonitorImpl, either since its creation or within
+ * its recent time window.
+ *
+ * <p>Besides count, average, best and worst, a snapshot contains a
+ * histogram of the response times, for percentiles such as the median
+ * or the 99th percentile. The histogram has a fixed number of buckets,
+ * whose widths grow with the response times: a percentile is exact
+ * below 8 ms, and otherwise within about 12% of the recorded value.
+ *
+ * @see ResponseTimeMonitorImpl#getStatistics
+ * @see ResponseTimeMonitorImpl#getRecentStatistics
+ */
+public final class ResponseTimeStatistics {
+
+	/** Number of buckets per power of two, and width of the exact range */
+	private static final int SUB_BUCKETS = 8;
+
+	/** Response times from 2^MAX_EXPONENT ms up share the last bucket */
+	private static final int MAX_EXPONENT = 24;
+
+	/** Exact buckets, SUB_BUCKETS per power of two up to MAX_EXPONENT, and one overflow bucket */
+	static final int BUCKET_COUNT = (MAX_EXPONENT - 2) * SUB_BUCKETS + 1;
+
+	/**
+	 * Return the histogram bucket for the given response time.
+	 */
+	static int bucketFor(long millis) {
+		if (millis < SUB_BUCKETS) {
+			return (millis > 0 ? (int) millis : 0);
+		}
+		int exponent = 3;
+		while (exponent < MAX_EXPONENT && (millis >> (exponent + 1)) != 0) {
+			exponent++;
+		}
+		if (exponent == MAX_EXPONENT) {
+			return BUCKET_COUNT - 1;
+		}
+		return (exponent - 3) * SUB_BUCKETS + (int) (millis >> (exponent - 3));
+	}
+
+	/**
+	 * Return the highest response time falling into the given bucket.
+	 */
+	static long bucketUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		if (bucket == BUCKET_COUNT - 1) {
+			return Long.MAX_VALUE;
+		}
+		int exponent = bucket / SUB_BUCKETS + 2;
+		long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return ((mantissa + 1) << (exponent - 3)) - 1;
+	}
+
+
+	private final long count;
+
+	private final long totalMillis;
+
+	private final long bestMillis;
+
+	private final long worstMillis;
+
+	private final long[] buckets;
+
+	ResponseTimeStatistics(long count, long totalMillis, long bestMillis, long worstMillis, long[] buckets) {
+		this.count = count;
+		this.totalMillis = totalMillis;
+		this.bestMillis = bestMillis;
+		this.worstMillis = worstMillis;
+		this.buckets = buckets;
+	}
+
+	/**
+	 * Return the number of response times recorded.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Return the sum of the response times in milliseconds.
+	 */
+	public long getTotalResponseTimeMillis() {
+		return totalMillis;
+	}
+
+	/**
+	 * Return the average response time in milliseconds, or 0 if none recorded.
+	 */
+	public long getAverageResponseTimeMillis() {
+		return (this.count > 0 ? this.totalMillis / this.count : 0);
+	}
+
+	/**
+	 * Return the best (quickest) response time in milliseconds, or 0 if none recorded.
+	 */
+	public long getBestResponseTimeMillis() {
+		return (this.count > 0 ? this.bestMillis : 0);
+	}
+
+	/**
+	 * Return the worst (slowest) response time in milliseconds, or 0 if none recorded.
+	 */
+	public long getWorstResponseTimeMillis() {
+		return (this.count > 0 ? this.worstMillis : 0);
+	}
+
+	/**
+	 * Return the response time that the given fraction of the
+	 * recorded response times doesn't exceed, e.g. 0.99 for the
+	 * 99th percentile.
+	 * @param fraction the fraction, between 0 and 1
+	 * @return the response time in milliseconds, or 0 if none recorded
+	 */
+	public long getPercentileMillis(double fraction) {
+		if (fraction < 0 || fraction > 1) {
+			throw new IllegalArgumentException("Fraction must be between 0 and 1, not " + fraction);
+		}
+		if (this.count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(fraction * this.count));
+		long seen = 0;
+		for (int i = 0; i < this.buckets.length; i++) {
+			seen += this.buckets[i];
+			if (seen >= rank) {
+				return Math.max(this.bestMillis, Math.min(bucketUpperBound(i), this.worstMillis));
+			}
+		}
+		return this.worstMillis;
+	}
+
+	/**
+	 * Return the median response time in milliseconds.
+	 */
+	public long getMedianMillis() {
+		return getPercentileMillis(0.5);
+	}
+
+	/**
+	 * Return the 99th percentile of the response times in milliseconds.
+	 */
+	public long get99thPercentileMillis() {
+		return getPercentileMillis(0.99);
+	}
+
+	/**
+	 * Return the 99.9th percentile of the response times in milliseconds.
+	 */
+	public long get999thPercentileMillis() {
+		return getPercentileMillis(0.999);
+	}
+
+	public String toString() {
+		return "hits=" + getCount() + "; avg=" + getAverageResponseTimeMillis() +
+		    "; best=" + getBestResponseTimeMillis() + "; worst=" + getWorstResponseTimeMillis() +
+		    "; p50=" + getMedianMillis() + "; p99=" + get99thPercentileMillis() +
+		    "; p999=" + get999thPercentileMillis();
+	}
+
+}
@@ -4,10 +4,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.util.KeyedResponseTimeMonitor;
 import org.springframework.util.ResponseTimeMonitorImpl;
 
 /**
  * Listener that logs the response times of web requests.
+ * Also keeps them per URL, in a KeyedResponseTimeMonitor.
  * @author Rod Johnson
  * @since January 21, 2001
  * @version $RevisionId$
@@ -18,15 +20,32 @@ public class PerformanceMonitorListener implements ApplicationListener {
 
 	private ResponseTimeMonitorImpl responseTimeMonitor;
 
+	private KeyedResponseTimeMonitor urlResponseTimeMonitor;
+
 	public PerformanceMonitorListener() {
 		responseTimeMonitor = new ResponseTimeMonitorImpl();
+		urlResponseTimeMonitor = new KeyedResponseTimeMonitor();
+	}
+
+	/**
+	 * Return the monitor of the response times of all requests.
+	 */
+	public ResponseTimeMonitorImpl getResponseTimeMonitor() {
+		return responseTimeMonitor;
+	}
+
+	/**
+	 * Return the monitor of the response times per URL.
+	 */
+	public KeyedResponseTimeMonitor getUrlResponseTimeMonitor() {
+		return urlResponseTimeMonitor;
 	}
 
 	public void onApplicationEvent(ApplicationEvent event) {
 		if (event instanceof RequestHandledEvent) {
 			RequestHandledEvent rhe = (RequestHandledEvent) event;
-			// Could use one monitor per URL
 			responseTimeMonitor.recordResponseTime(rhe.getTimeMillis());
+			urlResponseTimeMonitor.recordResponseTime(rhe.getURL(), rhe.getTimeMillis());
 			if (logger.isInfoEnabled()) {
 				// Stringifying objects is expensive. Don't do it unless it will show.
 				logger.info("PerformanceMonitorListener: last=" + rhe.getTimeMillis() + "ms; " + responseTimeMonitor + "; client was " + rhe.getIpAddress());
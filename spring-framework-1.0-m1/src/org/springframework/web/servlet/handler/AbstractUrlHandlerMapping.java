@@ -1,12 +1,11 @@
 package org.springframework.web.servlet.handler;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.springframework.util.PathMatcher;
+import org.springframework.util.PathPatternTrie;
 import org.springframework.web.util.WebUtils;
 
 /**
@@ -29,6 +28,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 
 	private Map handlerMap = new HashMap();
 
+	/** Registered paths as patterns, for lookups without direct match */
+	private PathPatternTrie handlerPatterns = new PathPatternTrie();
+
 	/**
 	 * Set if URL lookup should always use full path within current servlet
 	 * context. Else, the path within the current servlet mapping is used
@@ -55,23 +57,20 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 	 * <p>Supports direct matches, e.g. a registered "/test" matches "/test",
 	 * and a various Ant-style pattern matches, e.g. a registered "/t*" matches
 	 * both "/test" and "/team". For details, see the PathMatcher class.
+	 * <p>If several patterns match, literal path elements take precedence
+	 * over elements with wildcards, which take precedence over "**".
 	 * @param urlPath URL the bean is mapped to
 	 * @return the associated handler instance, or null if not found
 	 * @see org.springframework.util.PathMatcher
+	 * @see org.springframework.util.PathPatternTrie
 	 */
 	protected final Object lookupHandler(String urlPath) {
 		Object handler = this.handlerMap.get(urlPath);
 		if (handler != null) {
 			return handler;
 		}
-		for (Iterator it = this.handlerMap.keySet().iterator(); it.hasNext();) {
-			String registeredPath = (String) it.next();
-			if (PathMatcher.match(registeredPath, urlPath)) {
-				return this.handlerMap.get(registeredPath);
-			}
-		}
-		// no match found
-		return null;
+		// pattern match, or null if not found
+		return this.handlerPatterns.match(urlPath);
 	}
 
 	/**
@@ -81,6 +80,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 	 */
 	protected final void registerHandler(String urlPath, Object handler) {
 		this.handlerMap.put(urlPath, handler);
+		this.handlerPatterns.put(urlPath, handler);
 		logger.info("Mapped URL path [" + urlPath + "] onto handler [" + handler + "]");
 	}
 